@@ -0,0 +1,12 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+// 基准测试 ./gradlew :wheel-disruptor-ring:jmh
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(2)
+    warmupIterations.set(5)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
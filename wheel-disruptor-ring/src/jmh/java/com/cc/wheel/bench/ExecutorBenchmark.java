@@ -0,0 +1,65 @@
+package com.cc.wheel.bench;
+
+import com.cc.wheel.ring.executor.RingBufferExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短任务的分发延迟，提交一批空任务并等待全部执行完，对比RingBufferExecutor和基于ArrayBlockingQueue的ThreadPoolExecutor
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExecutorBenchmark {
+
+    @Param({"RING_BUFFER", "THREAD_POOL"})
+    public String type;
+
+    @Param({"1", "16"})
+    public int tasks;
+
+    @Param({"4"})
+    public int threads;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        if ("RING_BUFFER".equals(type)) {
+            executor = new RingBufferExecutor(threads, 1024);
+        } else {
+            executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1024));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void dispatch() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(latch::countDown);
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cc.wheel.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 两个线程各自写自己的volatile字段，对比Padding和NoPadding，NoPadding的两个对象连续分配，一般落在同一个缓存行上
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FalseShareBenchmark {
+
+    private static final Object OBJECT = new Object();
+
+    private NoPadding noPadding1;
+    private NoPadding noPadding2;
+
+    private Padding padding1;
+    private Padding padding2;
+
+    @Setup
+    public void setup() {
+        noPadding1 = new NoPadding();
+        noPadding2 = new NoPadding();
+        padding1 = new Padding();
+        padding2 = new Padding();
+    }
+
+    @Benchmark
+    @Group("noPadding")
+    @GroupThreads(1)
+    public void noPaddingWrite1() {
+        noPadding1.value = OBJECT;
+    }
+
+    @Benchmark
+    @Group("noPadding")
+    @GroupThreads(1)
+    public void noPaddingWrite2() {
+        noPadding2.value = OBJECT;
+    }
+
+    @Benchmark
+    @Group("padding")
+    @GroupThreads(1)
+    public void paddingWrite1() {
+        padding1.value = OBJECT;
+    }
+
+    @Benchmark
+    @Group("padding")
+    @GroupThreads(1)
+    public void paddingWrite2() {
+        padding2.value = OBJECT;
+    }
+}
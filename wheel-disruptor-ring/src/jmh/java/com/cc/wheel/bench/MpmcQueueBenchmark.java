@@ -0,0 +1,104 @@
+package com.cc.wheel.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个生产者和消费者的吞吐量，每个Group是一种线程分配
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MpmcQueueBenchmark {
+
+    private static final Integer VALUE = 1;
+
+    @Param({"1024", "65536"})
+    public int bufferSize;
+
+    @Param({"RING_MPMC", "VAR_HANDLE_MPMC", "ARRAY_BLOCKING_QUEUE", "CONCURRENT_LINKED_QUEUE"})
+    public QueueType type;
+
+    private Queue<Integer> queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = type.create(bufferSize);
+    }
+
+    private void doOffer(QueueCounters counters) {
+        if (queue.offer(VALUE)) {
+            counters.offered++;
+        } else {
+            counters.offerFailed++;
+        }
+    }
+
+    private Integer doPoll(QueueCounters counters) {
+        final Integer result = queue.poll();
+        if (Objects.nonNull(result)) {
+            counters.polled++;
+        } else {
+            counters.pollFailed++;
+        }
+        return result;
+    }
+
+    @Benchmark
+    @Group("threeToOne")
+    @GroupThreads(3)
+    public void threeToOneOffer(QueueCounters counters) {
+        doOffer(counters);
+    }
+
+    @Benchmark
+    @Group("threeToOne")
+    @GroupThreads(1)
+    public Integer threeToOnePoll(QueueCounters counters) {
+        return doPoll(counters);
+    }
+
+    @Benchmark
+    @Group("twoToTwo")
+    @GroupThreads(2)
+    public void twoToTwoOffer(QueueCounters counters) {
+        doOffer(counters);
+    }
+
+    @Benchmark
+    @Group("twoToTwo")
+    @GroupThreads(2)
+    public Integer twoToTwoPoll(QueueCounters counters) {
+        return doPoll(counters);
+    }
+
+    @Benchmark
+    @Group("oneToThree")
+    @GroupThreads(1)
+    public void oneToThreeOffer(QueueCounters counters) {
+        doOffer(counters);
+    }
+
+    @Benchmark
+    @Group("oneToThree")
+    @GroupThreads(3)
+    public Integer oneToThreePoll(QueueCounters counters) {
+        return doPoll(counters);
+    }
+}
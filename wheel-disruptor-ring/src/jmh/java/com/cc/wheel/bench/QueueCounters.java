@@ -0,0 +1,34 @@
+package com.cc.wheel.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 每个线程成功和失败的次数，队列满或者空时的失败不算作吞吐量
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@State(Scope.Thread)
+public class QueueCounters {
+
+    public long offered;
+
+    public long offerFailed;
+
+    public long polled;
+
+    public long pollFailed;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        offered = 0;
+        offerFailed = 0;
+        polled = 0;
+        pollFailed = 0;
+    }
+}
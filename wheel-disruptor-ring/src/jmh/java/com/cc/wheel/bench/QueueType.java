@@ -0,0 +1,73 @@
+package com.cc.wheel.bench;
+
+import com.cc.wheel.ring.RingBlockingQueue;
+import com.cc.wheel.ring.RingBuffer;
+import com.cc.wheel.ring.RingMode;
+import com.cc.wheel.ring.VarHandleRingBuffer;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 参与对比的队列，都通过Queue的offer/poll访问
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public enum QueueType {
+
+    RING_MPMC {
+        @Override
+        public Queue<Integer> create(int capacity) {
+            return new RingBlockingQueue<>(new RingBuffer<>(capacity, RingMode.MPMC, new YieldingWaitStrategy()));
+        }
+    },
+
+    /**
+     * 只能用于一个生产者一个消费者
+     */
+    RING_SPSC {
+        @Override
+        public Queue<Integer> create(int capacity) {
+            return new RingBlockingQueue<>(new RingBuffer<>(capacity, RingMode.SPSC, new YieldingWaitStrategy()));
+        }
+    },
+
+    VAR_HANDLE_MPMC {
+        @Override
+        public Queue<Integer> create(int capacity) {
+            return new VarHandleRingQueue<>(new VarHandleRingBuffer<>(capacity, RingMode.MPMC, new YieldingWaitStrategy()));
+        }
+    },
+
+    /**
+     * 只能用于一个生产者一个消费者
+     */
+    VAR_HANDLE_SPSC {
+        @Override
+        public Queue<Integer> create(int capacity) {
+            return new VarHandleRingQueue<>(new VarHandleRingBuffer<>(capacity, RingMode.SPSC, new YieldingWaitStrategy()));
+        }
+    },
+
+    ARRAY_BLOCKING_QUEUE {
+        @Override
+        public Queue<Integer> create(int capacity) {
+            return new ArrayBlockingQueue<>(capacity);
+        }
+    },
+
+    /**
+     * 无界队列，容量参数没有作用
+     */
+    CONCURRENT_LINKED_QUEUE {
+        @Override
+        public Queue<Integer> create(int capacity) {
+            return new ConcurrentLinkedQueue<>();
+        }
+    };
+
+    public abstract Queue<Integer> create(int capacity);
+}
@@ -0,0 +1,68 @@
+package com.cc.wheel.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个生产者一个消费者的吞吐量，包括SPSC模式的RingBuffer
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpscQueueBenchmark {
+
+    private static final Integer VALUE = 1;
+
+    @Param({"1024", "65536"})
+    public int bufferSize;
+
+    @Param({"RING_SPSC", "RING_MPMC", "VAR_HANDLE_SPSC", "VAR_HANDLE_MPMC", "ARRAY_BLOCKING_QUEUE", "CONCURRENT_LINKED_QUEUE"})
+    public QueueType type;
+
+    private Queue<Integer> queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = type.create(bufferSize);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public void offer(QueueCounters counters) {
+        if (queue.offer(VALUE)) {
+            counters.offered++;
+        } else {
+            counters.offerFailed++;
+        }
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public Integer poll(QueueCounters counters) {
+        final Integer result = queue.poll();
+        if (Objects.nonNull(result)) {
+            counters.polled++;
+        } else {
+            counters.pollFailed++;
+        }
+        return result;
+    }
+}
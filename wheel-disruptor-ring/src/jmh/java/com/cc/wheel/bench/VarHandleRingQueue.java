@@ -0,0 +1,69 @@
+package com.cc.wheel.bench;
+
+import com.cc.wheel.ring.VarHandleRingBuffer;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 把VarHandleRingBuffer适配成Queue，基准测试只用到offer/poll/size
+ * peek和iterator读取队列的快照，contains、toString等方法可以正常使用
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class VarHandleRingQueue<E> extends AbstractQueue<E> {
+
+    private final VarHandleRingBuffer<E> ringBuffer;
+
+    public VarHandleRingQueue(VarHandleRingBuffer<E> ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        return ringBuffer.offer(e);
+    }
+
+    @Override
+    public E poll() {
+        return ringBuffer.poll();
+    }
+
+    @Override
+    public E peek() {
+        return ringBuffer.peek();
+    }
+
+    /**
+     * 弱一致的快照，不支持remove
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Object[] snapshot = ringBuffer.toArray();
+        return new Iterator<>() {
+
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (cursor >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) snapshot[cursor++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return ringBuffer.size();
+    }
+}
@@ -0,0 +1,278 @@
+package com.cc.wheel.ring;
+
+import com.cc.wheel.ring.utils.PaddedSlots;
+import com.cc.wheel.ring.utils.UnsafeUtils;
+import com.cc.wheel.ring.wait.WaitStrategy;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
+import lombok.NonNull;
+import sun.misc.Unsafe;
+
+/**
+ * long的环形队列，元素直接存放在long[]中，没有装箱
+ * 寻址方式和RingBuffer相同，每个槽位独占一个缓存行，用保留值EMPTY标记空槽位，所以EMPTY不能入队
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@SuppressWarnings("unused")
+public class LongRingBuffer {
+
+    /**
+     * 空槽位的保留值，poll在队列为空时也返回它
+     */
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
+
+    private static final int BUFFER_BASE_OFFSET;
+    private static final int BUFFER_ELEMENT_SHIFT;
+    private static final int BUFFER_PADDING_SHIFT;
+
+    private static final long WRITE_INDEX_OFFSET;
+    private static final long READ_INDEX_OFFSET;
+
+    static {
+        try {
+            BUFFER_ELEMENT_SHIFT = PaddedSlots.elementShift(long[].class);
+            BUFFER_PADDING_SHIFT = PaddedSlots.paddingShift(long[].class);
+            BUFFER_BASE_OFFSET = PaddedSlots.baseOffset(long[].class);
+
+            READ_INDEX_OFFSET = UNSAFE.objectFieldOffset(LongRingBuffer.class.getDeclaredField("readIndex"));
+            WRITE_INDEX_OFFSET = UNSAFE.objectFieldOffset(LongRingBuffer.class.getDeclaredField("writeIndex"));
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final int indexMask;
+
+    private final RingMode mode;
+
+    private final WaitStrategy waitStrategy;
+
+    private final long[] buffer;
+
+    private long l1, l2, l3, l4, l5, l6, l7;
+
+    private volatile long readIndex;
+
+    /**
+     * 消费者缓存的写下标，只在SPSC模式下由消费者线程读写
+     */
+    private long cachedWriteIndex;
+
+    private long p1, p2, p3, p4, p5, p6;
+
+    private volatile long writeIndex;
+
+    /**
+     * 生产者缓存的读下标，只在SPSC模式下由生产者线程读写
+     */
+    private long cachedReadIndex;
+
+    private long l9, l10, l11, l12, l13, l14, l15;
+
+    public LongRingBuffer(final int bufferSize) {
+        this(bufferSize, RingMode.MPMC, new YieldingWaitStrategy());
+    }
+
+    /**
+     * @param bufferSize   容量，必须是2的幂
+     * @param mode         生产者消费者模式，SPSC模式下只允许一个生产者线程和一个消费者线程
+     * @param waitStrategy 槽位忙时的等待策略
+     */
+    public LongRingBuffer(final int bufferSize, @NonNull RingMode mode, @NonNull WaitStrategy waitStrategy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must not be less than 1");
+        }
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.indexMask = bufferSize - 1;
+        this.mode = mode;
+        this.waitStrategy = waitStrategy;
+        this.buffer = new long[PaddedSlots.length(bufferSize, BUFFER_PADDING_SHIFT)];
+        for (long i = 0; i < bufferSize; i++) {
+            bufferSet(i, EMPTY);
+        }
+    }
+
+    private static long bufferOffset(final long index) {
+        return BUFFER_BASE_OFFSET + (index << BUFFER_ELEMENT_SHIFT << BUFFER_PADDING_SHIFT);
+    }
+
+    private boolean bufferCompareEmptyAndSwap(final long index, final long value) {
+        return UNSAFE.compareAndSwapLong(this.buffer, bufferOffset(index), EMPTY, value);
+    }
+
+    private long bufferGetAndSetEmpty(final long index) {
+        return UNSAFE.getAndSetLong(this.buffer, bufferOffset(index), EMPTY);
+    }
+
+    private long bufferGetVolatile(final long index) {
+        return UNSAFE.getLongVolatile(this.buffer, bufferOffset(index));
+    }
+
+    private long bufferGet(final long index) {
+        return UNSAFE.getLong(this.buffer, bufferOffset(index));
+    }
+
+    private void bufferSet(final long index, final long value) {
+        UNSAFE.putLong(this.buffer, bufferOffset(index), value);
+    }
+
+    private boolean objectCompareAndSwapLong(final long offset, final long expect, final long update) {
+        return UNSAFE.compareAndSwapLong(this, offset, expect, update);
+    }
+
+    private void objectPutOrderedLong(final long offset, final long value) {
+        UNSAFE.putOrderedLong(this, offset, value);
+    }
+
+    private static void checkValue(final long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("value must not be EMPTY");
+        }
+    }
+
+    public void put(final long value) throws InterruptedException {
+        checkValue(value);
+        int counter = 0;
+        if (mode == RingMode.SPSC) {
+            final long writeIndex = this.writeIndex;
+            final long wrapPoint = writeIndex - indexMask - 1;
+            while (cachedReadIndex <= wrapPoint) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if ((cachedReadIndex = this.readIndex) <= wrapPoint) {
+                    counter = waitStrategy.idle(counter);
+                }
+            }
+            bufferSet(writeIndex & indexMask, value);
+            objectPutOrderedLong(WRITE_INDEX_OFFSET, writeIndex + 1);
+        } else {
+            final long writeIndex = UNSAFE.getAndAddLong(this, WRITE_INDEX_OFFSET, 1) & indexMask;
+            while (!bufferCompareEmptyAndSwap(writeIndex, value)) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                counter = waitStrategy.idle(counter);
+            }
+        }
+        waitStrategy.signalAll();
+    }
+
+    public long take() throws InterruptedException {
+        int counter = 0;
+        long result;
+        if (mode == RingMode.SPSC) {
+            final long readIndex = this.readIndex;
+            while (cachedWriteIndex <= readIndex) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if ((cachedWriteIndex = this.writeIndex) <= readIndex) {
+                    counter = waitStrategy.idle(counter);
+                }
+            }
+            result = bufferGet(readIndex & indexMask);
+            objectPutOrderedLong(READ_INDEX_OFFSET, readIndex + 1);
+        } else {
+            final long readIndex = UNSAFE.getAndAddLong(this, READ_INDEX_OFFSET, 1) & indexMask;
+            while ((result = bufferGetAndSetEmpty(readIndex)) == EMPTY) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                counter = waitStrategy.idle(counter);
+            }
+        }
+        waitStrategy.signalAll();
+        return result;
+    }
+
+    /**
+     * 尝试写入，队列满时立即返回，不会占用下标
+     *
+     * @param value 元素，不能是EMPTY
+     * @return 是否写入成功
+     */
+    public boolean offer(final long value) {
+        checkValue(value);
+        if (mode == RingMode.SPSC) {
+            final long writeIndex = this.writeIndex;
+            final long wrapPoint = writeIndex - indexMask - 1;
+            if (cachedReadIndex <= wrapPoint && (cachedReadIndex = this.readIndex) <= wrapPoint) {
+                return false;
+            }
+            bufferSet(writeIndex & indexMask, value);
+            objectPutOrderedLong(WRITE_INDEX_OFFSET, writeIndex + 1);
+            waitStrategy.signalAll();
+            return true;
+        }
+        for (; ; ) {
+            final long writeIndex = this.writeIndex;
+            if (writeIndex - this.readIndex > indexMask || bufferGetVolatile(writeIndex & indexMask) != EMPTY) {
+                return false;
+            }
+            if (objectCompareAndSwapLong(WRITE_INDEX_OFFSET, writeIndex, writeIndex + 1)) {
+                while (!bufferCompareEmptyAndSwap(writeIndex & indexMask, value)) {
+                    Thread.yield();
+                }
+                waitStrategy.signalAll();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 尝试读取，队列空时立即返回，不会占用下标
+     *
+     * @return 元素，队列空时返回EMPTY
+     */
+    public long poll() {
+        if (mode == RingMode.SPSC) {
+            final long readIndex = this.readIndex;
+            if (cachedWriteIndex <= readIndex && (cachedWriteIndex = this.writeIndex) <= readIndex) {
+                return EMPTY;
+            }
+            final long result = bufferGet(readIndex & indexMask);
+            objectPutOrderedLong(READ_INDEX_OFFSET, readIndex + 1);
+            waitStrategy.signalAll();
+            return result;
+        }
+        for (; ; ) {
+            final long readIndex = this.readIndex;
+            if (readIndex >= this.writeIndex || bufferGetVolatile(readIndex & indexMask) == EMPTY) {
+                return EMPTY;
+            }
+            if (objectCompareAndSwapLong(READ_INDEX_OFFSET, readIndex, readIndex + 1)) {
+                long result;
+                while ((result = bufferGetAndSetEmpty(readIndex & indexMask)) == EMPTY) {
+                    Thread.yield();
+                }
+                waitStrategy.signalAll();
+                return result;
+            }
+        }
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 队列中的元素数量
+     */
+    public int size() {
+        final long readIndex = this.readIndex;
+        final long writeIndex = this.writeIndex;
+        return (int) Math.max(0, Math.min(writeIndex - readIndex, capacity()));
+    }
+
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+}
@@ -0,0 +1,258 @@
+package com.cc.wheel.ring;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * 基于内存映射文件的字节环形队列，用于同一台机器上的进程间通信，文件一般放在/dev/shm下
+ * 容量同样是2的幂，通过掩码寻址，读写下标各自独占填充过的缓存行，支持多个生产者（可以在不同的进程中）和一个消费者
+ * <pre>
+ * | 元数据 128B | 写下标 128B | 读下标 128B | 数据区 capacity B |
+ * </pre>
+ * 数据区中的每条记录按8字节对齐，以8字节的记录头开始，高32位是记录类型，低32位是内容长度，记录头为0表示还没有提交
+ * 生产者CAS推进写下标占用空间，写入内容后再release写入记录头提交；消费者acquire读取记录头，原地读取内容后清零记录，再release推进读下标
+ * 记录放不下数据区末尾的剩余空间时，先用一条填充记录占满末尾，再从数据区开头写入
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class MappedByteRingBuffer {
+
+    public static final String SHM_DIR = "/dev/shm";
+
+    /**
+     * 记录的消费者，buffer是只读的映射区域，只在回调内有效，需要保留的内容必须自行复制
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * @param buffer 只读的映射区域
+         * @param offset 内容在buffer中的起始位置
+         * @param length 内容长度
+         */
+        void onRecord(ByteBuffer buffer, int offset, int length);
+    }
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final long MAGIC = 0x57_48_45_45_4C_52_49_4EL;
+
+    private static final int PADDING_SIZE = 128;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int WRITE_INDEX_OFFSET = PADDING_SIZE;
+    private static final int READ_INDEX_OFFSET = 2 * PADDING_SIZE;
+    private static final int DATA_OFFSET = 3 * PADDING_SIZE;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int RECORD_ALIGNMENT = 8;
+
+    private static final long TYPE_RECORD = 1;
+    private static final long TYPE_PADDING = 2;
+
+    private final MappedByteBuffer buffer;
+
+    private final ByteBuffer readOnlyBuffer;
+
+    private final int capacity;
+
+    private final int indexMask;
+
+    private final int maxRecordLength;
+
+    /**
+     * 本进程中生产者缓存的读下标，只是一个下界，过期了也不影响正确性
+     */
+    private volatile long cachedReadIndex;
+
+    private MappedByteRingBuffer(MappedByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.readOnlyBuffer = buffer.asReadOnlyBuffer().order(buffer.order());
+        this.capacity = capacity;
+        this.indexMask = capacity - 1;
+        this.maxRecordLength = capacity / 2 - RECORD_HEADER_SIZE;
+    }
+
+    /**
+     * 打开队列文件，文件不存在时按照capacity创建，已经存在时校验容量
+     *
+     * @param path     文件路径
+     * @param capacity 数据区容量，必须是2的幂
+     * @return 队列
+     * @throws IOException while the file can not be mapped
+     */
+    public static MappedByteRingBuffer open(@NonNull Path path, final int capacity) throws IOException {
+        if (capacity < PADDING_SIZE) {
+            throw new IllegalArgumentException("capacity must not be less than " + PADDING_SIZE);
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2");
+        }
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 映射超出文件大小的区域时，文件会被扩展并以0填充
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + capacity);
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        // 先写容量再写魔数，其他进程看到魔数时一定能看到容量
+        if ((long) LONG_VIEW.getAcquire(buffer, MAGIC_OFFSET) != MAGIC) {
+            LONG_VIEW.compareAndSet(buffer, CAPACITY_OFFSET, 0L, (long) capacity);
+            LONG_VIEW.compareAndSet(buffer, MAGIC_OFFSET, 0L, MAGIC);
+        }
+        final long existCapacity = (long) LONG_VIEW.getVolatile(buffer, CAPACITY_OFFSET);
+        if ((long) LONG_VIEW.getAcquire(buffer, MAGIC_OFFSET) != MAGIC || existCapacity != capacity) {
+            throw new IllegalStateException("Ring file " + path + " is not a ring of capacity " + capacity);
+        }
+        return new MappedByteRingBuffer(buffer, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int maxRecordLength() {
+        return maxRecordLength;
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 已经占用的字节数，包括记录头和对齐的填充
+     */
+    public long size() {
+        final long readIndex = (long) LONG_VIEW.getVolatile(buffer, READ_INDEX_OFFSET);
+        final long writeIndex = (long) LONG_VIEW.getVolatile(buffer, WRITE_INDEX_OFFSET);
+        return Math.max(0, Math.min(writeIndex - readIndex, capacity));
+    }
+
+    /**
+     * 写入一条记录，空间不足时立即返回
+     *
+     * @param src 内容
+     * @param off 起始位置
+     * @param len 长度
+     * @return 是否写入成功
+     */
+    public boolean offer(@NonNull byte[] src, final int off, final int len) {
+        Objects.checkFromIndexSize(off, len, src.length);
+        final int index = claim(len);
+        if (index < 0) {
+            return false;
+        }
+        final ByteBuffer target = buffer.duplicate();
+        target.position(DATA_OFFSET + index + RECORD_HEADER_SIZE);
+        target.put(src, off, len);
+        commit(index, TYPE_RECORD, len);
+        return true;
+    }
+
+    /**
+     * 写入src中剩余的内容作为一条记录，空间不足时立即返回，成功时src的position移动到limit
+     *
+     * @param src 内容
+     * @return 是否写入成功
+     */
+    public boolean offer(@NonNull ByteBuffer src) {
+        final int len = src.remaining();
+        final int index = claim(len);
+        if (index < 0) {
+            return false;
+        }
+        final ByteBuffer target = buffer.duplicate();
+        target.position(DATA_OFFSET + index + RECORD_HEADER_SIZE);
+        target.put(src);
+        commit(index, TYPE_RECORD, len);
+        return true;
+    }
+
+    /**
+     * 原地读取已经提交的记录，只允许一个消费者
+     * handler抛出异常时，该记录不会被消费，下次读取时会再次交给handler
+     *
+     * @param handler 记录的消费者
+     * @param max     最多读取的记录数
+     * @return 实际读取的记录数
+     */
+    public int read(@NonNull RecordHandler handler, final int max) {
+        long readIndex = (long) LONG_VIEW.getVolatile(buffer, READ_INDEX_OFFSET);
+        int count = 0;
+        try {
+            while (count < max) {
+                final int index = (int) (readIndex & indexMask);
+                final long header = (long) LONG_VIEW.getAcquire(buffer, DATA_OFFSET + index);
+                if (header == 0) {
+                    break;
+                }
+                final int length = (int) header;
+                final int recordLength = align(RECORD_HEADER_SIZE + length);
+                if ((header >>> 32) == TYPE_RECORD) {
+                    handler.onRecord(readOnlyBuffer, DATA_OFFSET + index + RECORD_HEADER_SIZE, length);
+                    count++;
+                }
+                // 清零整条记录，下一圈的记录头可能落在其中任意一个对齐的位置
+                for (int i = 0; i < recordLength; i += RECORD_ALIGNMENT) {
+                    buffer.putLong(DATA_OFFSET + index + i, 0L);
+                }
+                readIndex += recordLength;
+            }
+        } finally {
+            // 一批只发布一次读下标，清零先于发布
+            LONG_VIEW.setRelease(buffer, READ_INDEX_OFFSET, readIndex);
+        }
+        return count;
+    }
+
+    /**
+     * 占用一条记录的空间，放不下末尾时连同末尾的填充一起占用
+     *
+     * @param length 内容长度
+     * @return 记录在数据区中的位置，空间不足时返回-1
+     */
+    private int claim(final int length) {
+        if (length > maxRecordLength) {
+            throw new IllegalArgumentException("record length " + length + " exceeds " + maxRecordLength);
+        }
+        final int recordLength = align(RECORD_HEADER_SIZE + length);
+        for (; ; ) {
+            final long writeIndex = (long) LONG_VIEW.getVolatile(buffer, WRITE_INDEX_OFFSET);
+            final int index = (int) (writeIndex & indexMask);
+            final int toEnd = capacity - index;
+            final int required = recordLength <= toEnd ? recordLength : toEnd + recordLength;
+            if (writeIndex + required - cachedReadIndex > capacity) {
+                final long readIndex = (long) LONG_VIEW.getAcquire(buffer, READ_INDEX_OFFSET);
+                cachedReadIndex = readIndex;
+                if (writeIndex + required - readIndex > capacity) {
+                    return -1;
+                }
+            }
+            if (LONG_VIEW.compareAndSet(buffer, WRITE_INDEX_OFFSET, writeIndex, writeIndex + required)) {
+                if (required == recordLength) {
+                    return index;
+                }
+                commit(index, TYPE_PADDING, toEnd - RECORD_HEADER_SIZE);
+                return 0;
+            }
+        }
+    }
+
+    private void commit(final int index, final long type, final int length) {
+        LONG_VIEW.setRelease(buffer, DATA_OFFSET + index, (type << 32) | (length & 0xFFFFFFFFL));
+    }
+
+    private static int align(final int length) {
+        return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+}
@@ -0,0 +1,238 @@
+package com.cc.wheel.ring;
+
+import com.cc.wheel.ring.utils.PaddedSlots;
+import com.cc.wheel.ring.utils.UnsafeUtils;
+import lombok.NonNull;
+import sun.misc.Unsafe;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 无界的多生产者单消费者队列，由固定大小的数组块链接而成，生产者永远不会阻塞，适合事件循环式的消费者
+ * 每个数组块和RingBuffer一样，每个槽位独占一个缓存行，最后一个槽位存放下一个数组块
+ * 生产者下标每次加2，最低位为1表示某个生产者正在追加新的数组块，其他生产者等待追加完成
+ * 消费者读完一个数组块后沿着链接进入下一个数组块，读完的数组块会留给下一次追加复用
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@SuppressWarnings("unused")
+public class MpscChunkedQueue<E> {
+
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
+
+    private static final int BUFFER_BASE_OFFSET;
+    private static final int BUFFER_ELEMENT_SHIFT;
+    private static final int BUFFER_PADDING_SHIFT;
+
+    private static final long PRODUCER_INDEX_OFFSET;
+    private static final long CONSUMER_INDEX_OFFSET;
+
+    static {
+        try {
+            BUFFER_ELEMENT_SHIFT = PaddedSlots.elementShift(Object[].class);
+            BUFFER_PADDING_SHIFT = PaddedSlots.paddingShift(Object[].class);
+            BUFFER_BASE_OFFSET = PaddedSlots.baseOffset(Object[].class);
+
+            PRODUCER_INDEX_OFFSET = UNSAFE.objectFieldOffset(MpscChunkedQueue.class.getDeclaredField("producerIndex"));
+            CONSUMER_INDEX_OFFSET = UNSAFE.objectFieldOffset(MpscChunkedQueue.class.getDeclaredField("consumerIndex"));
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final int chunkSize;
+
+    private final int chunkMask;
+
+    /**
+     * 读完的数组块，留给下一次追加复用
+     */
+    private final AtomicReference<Object[]> spareChunk = new AtomicReference<>();
+
+    /**
+     * 生产者当前写入的数组块
+     */
+    private volatile Object[] producerChunk;
+
+    /**
+     * 消费者当前读取的数组块，只由消费者线程读写
+     */
+    private Object[] consumerChunk;
+
+    private long l1, l2, l3, l4, l5, l6, l7;
+
+    private volatile long producerIndex;
+
+    /**
+     * 当前数组块的下标上限，达到上限时需要追加新的数组块
+     */
+    private volatile long producerLimit;
+
+    private long p1, p2, p3, p4, p5, p6;
+
+    private volatile long consumerIndex;
+
+    /**
+     * 消费者当前数组块的起始下标，只由消费者线程读写
+     */
+    private long consumerChunkStart;
+
+    private long l9, l10, l11, l12, l13, l14, l15;
+
+    /**
+     * @param chunkSize 每个数组块的元素数量，必须是2的幂
+     */
+    public MpscChunkedQueue(final int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("chunkSize must not be less than 2");
+        }
+        if (Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("chunkSize must be a power of 2");
+        }
+        this.chunkSize = chunkSize;
+        this.chunkMask = chunkSize - 1;
+        final Object[] chunk = newChunk();
+        this.consumerChunk = chunk;
+        this.producerLimit = 2L * chunkSize;
+        this.producerChunk = chunk;
+    }
+
+    private Object[] newChunk() {
+        // 最后一个槽位存放下一个数组块
+        return new Object[PaddedSlots.length(chunkSize + 1, BUFFER_PADDING_SHIFT)];
+    }
+
+    private static long slotOffset(final long slot) {
+        return BUFFER_BASE_OFFSET + (slot << BUFFER_ELEMENT_SHIFT << BUFFER_PADDING_SHIFT);
+    }
+
+    private long elementOffset(final long index) {
+        return slotOffset((index >> 1) & chunkMask);
+    }
+
+    private long linkOffset() {
+        return slotOffset(chunkSize);
+    }
+
+    /**
+     * 写入元素，永远不会阻塞
+     *
+     * @param value 元素
+     * @return true
+     */
+    public boolean offer(@NonNull E value) {
+        for (; ; ) {
+            final long index = this.producerIndex;
+            if ((index & 1) == 1) {
+                // 其他生产者正在追加数组块
+                Thread.onSpinWait();
+                continue;
+            }
+            // 先读下标再读上限和数组块，追加数组块时先写上限和数组块再发布下标，所以读到的上限和数组块不会比下标旧
+            // 反过来先读上限的话，旧的上限配上新的下标会提前追加数组块，消费者会一直等待旧数组块中永远不会写入的槽位
+            // 读到的上限和数组块比下标新时，下标一定已经变化，下面的CAS会失败
+            final long limit = this.producerLimit;
+            final Object[] chunk = this.producerChunk;
+            if (limit <= index) {
+                if (UNSAFE.compareAndSwapLong(this, PRODUCER_INDEX_OFFSET, index, index + 1)) {
+                    appendChunk(chunk, index, value);
+                    return true;
+                }
+                continue;
+            }
+            if (UNSAFE.compareAndSwapLong(this, PRODUCER_INDEX_OFFSET, index, index + 2)) {
+                UNSAFE.putOrderedObject(chunk, elementOffset(index), value);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 追加新的数组块，调用时生产者下标为奇数，其他生产者都在等待
+     */
+    private void appendChunk(final Object[] oldChunk, final long index, final E value) {
+        Object[] newChunk = spareChunk.getAndSet(null);
+        if (Objects.isNull(newChunk)) {
+            newChunk = newChunk();
+        }
+        this.producerChunk = newChunk;
+        this.producerLimit = index + 2L * chunkSize;
+        UNSAFE.putOrderedObject(newChunk, elementOffset(index), value);
+        // 元素先于链接可见，消费者看到链接时一定能读到新数组块的第一个元素
+        UNSAFE.putOrderedObject(oldChunk, linkOffset(), newChunk);
+        UNSAFE.putOrderedLong(this, PRODUCER_INDEX_OFFSET, index + 2);
+    }
+
+    /**
+     * 读取元素，只允许一个消费者线程
+     *
+     * @return 元素，队列为空时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        final long index = this.consumerIndex;
+        Object[] chunk = this.consumerChunk;
+        if (index - consumerChunkStart == 2L * chunkSize) {
+            final Object[] next = (Object[]) UNSAFE.getObjectVolatile(chunk, linkOffset());
+            if (Objects.isNull(next)) {
+                return null;
+            }
+            UNSAFE.putObject(chunk, linkOffset(), null);
+            // 读完的数组块不会再被任何生产者写入，所有的槽位都已经清空，可以复用
+            if (Objects.isNull(spareChunk.get())) {
+                spareChunk.lazySet(chunk);
+            }
+            chunk = this.consumerChunk = next;
+            this.consumerChunkStart = index;
+        }
+        final long offset = elementOffset(index);
+        Object value = UNSAFE.getObjectVolatile(chunk, offset);
+        if (Objects.isNull(value)) {
+            if (index == this.producerIndex) {
+                return null;
+            }
+            // 生产者已经占用了下标，但还没有写入
+            while (Objects.isNull(value = UNSAFE.getObjectVolatile(chunk, offset))) {
+                Thread.onSpinWait();
+            }
+        }
+        UNSAFE.putObject(chunk, offset, null);
+        UNSAFE.putOrderedLong(this, CONSUMER_INDEX_OFFSET, index + 2);
+        return (E) value;
+    }
+
+    /**
+     * 批量读取当前已有的元素，只允许一个消费者线程
+     *
+     * @param consumer 元素的消费者
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     */
+    public int drain(@NonNull Consumer<? super E> consumer, final int max) {
+        int count = 0;
+        E value;
+        while (count < max && Objects.nonNull(value = poll())) {
+            consumer.accept(value);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 队列中的元素数量
+     */
+    public long size() {
+        final long consumerIndex = this.consumerIndex;
+        final long producerIndex = this.producerIndex;
+        return Math.max(0, (producerIndex - consumerIndex) >> 1);
+    }
+
+    public boolean isEmpty() {
+        return this.consumerIndex == this.producerIndex;
+    }
+}
@@ -0,0 +1,247 @@
+package com.cc.wheel.ring;
+
+import com.cc.wheel.ring.utils.PaddedSlots;
+import com.cc.wheel.ring.utils.UnsafeUtils;
+import lombok.NonNull;
+import sun.misc.Unsafe;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 覆盖写入的环形队列，用于指标、调试日志等允许丢失的场景，多个生产者，一个消费者
+ * 生产者不等待消费者，队列满时直接覆盖最旧的元素；
+ * 消费者通过槽位中的序号发现自己被覆盖，跳过丢失的元素并累计丢失的数量
+ * 元素和序号放在两个预先分配的数组中，写入不创建对象，槽位的状态字保证读不到序号和元素不一致的数据
+ * <pre>
+ * state = (sequence + 1) << 1 | writing
+ * </pre>
+ * 写入方先把状态字CAS为写入中，再写元素，最后有序写入完成的状态；状态字为0表示序号-1，即空槽位
+ * 写入中的槽位只能由持有者修改，遇到更旧的序号正在写入时新的写入方让出CPU等待，只会等待两次写入的时间
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@SuppressWarnings("unused")
+public class OverwriteRingBuffer<T> {
+
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
+
+    private static final int BUFFER_BASE_OFFSET;
+    private static final int BUFFER_ELEMENT_SHIFT;
+    private static final int BUFFER_PADDING_SHIFT;
+
+    private static final int STATES_BASE_OFFSET;
+    private static final int STATES_ELEMENT_SHIFT;
+    private static final int STATES_PADDING_SHIFT;
+
+    private static final long WRITE_INDEX_OFFSET;
+    private static final long READ_INDEX_OFFSET;
+    private static final long DROPPED_OFFSET;
+
+    private static final long WRITING = 1L;
+
+    static {
+        try {
+            BUFFER_ELEMENT_SHIFT = PaddedSlots.elementShift(Object[].class);
+            BUFFER_PADDING_SHIFT = PaddedSlots.paddingShift(Object[].class);
+            BUFFER_BASE_OFFSET = PaddedSlots.baseOffset(Object[].class);
+
+            STATES_ELEMENT_SHIFT = PaddedSlots.elementShift(long[].class);
+            STATES_PADDING_SHIFT = PaddedSlots.paddingShift(long[].class);
+            STATES_BASE_OFFSET = PaddedSlots.baseOffset(long[].class);
+
+            READ_INDEX_OFFSET = UNSAFE.objectFieldOffset(OverwriteRingBuffer.class.getDeclaredField("readIndex"));
+            WRITE_INDEX_OFFSET = UNSAFE.objectFieldOffset(OverwriteRingBuffer.class.getDeclaredField("writeIndex"));
+            DROPPED_OFFSET = UNSAFE.objectFieldOffset(OverwriteRingBuffer.class.getDeclaredField("dropped"));
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final int indexMask;
+
+    private final Object[] buffer;
+
+    /**
+     * 槽位的状态字，包括槽位中元素的序号和是否正在写入
+     */
+    private final long[] states;
+
+    private long l1, l2, l3, l4, l5, l6, l7;
+
+    /**
+     * 只由消费者线程修改
+     */
+    private volatile long readIndex;
+
+    /**
+     * 被覆盖的元素数量，只由消费者线程修改
+     */
+    private volatile long dropped;
+
+    private long p1, p2, p3, p4, p5, p6;
+
+    private volatile long writeIndex;
+
+    private long l9, l10, l11, l12, l13, l14, l15;
+
+    /**
+     * @param bufferSize 容量，必须是2的幂
+     */
+    public OverwriteRingBuffer(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must not be less than 1");
+        }
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.indexMask = bufferSize - 1;
+        this.buffer = new Object[PaddedSlots.length(bufferSize, BUFFER_PADDING_SHIFT)];
+        this.states = new long[PaddedSlots.length(bufferSize, STATES_PADDING_SHIFT)];
+    }
+
+    private static long bufferOffset(final long index) {
+        return BUFFER_BASE_OFFSET + (index << BUFFER_ELEMENT_SHIFT << BUFFER_PADDING_SHIFT);
+    }
+
+    private static long stateOffset(final long index) {
+        return STATES_BASE_OFFSET + (index << STATES_ELEMENT_SHIFT << STATES_PADDING_SHIFT);
+    }
+
+    private static long state(final long sequence, final long writing) {
+        return (sequence + 1) << 1 | writing;
+    }
+
+    private static long sequenceOf(final long state) {
+        return (state >>> 1) - 1;
+    }
+
+    private static boolean isWriting(final long state) {
+        return (state & WRITING) != 0;
+    }
+
+    private Object bufferGet(final long index) {
+        return UNSAFE.getObject(this.buffer, bufferOffset(index));
+    }
+
+    private void bufferPut(final long index, final Object value) {
+        UNSAFE.putObject(this.buffer, bufferOffset(index), value);
+    }
+
+    private long stateGetVolatile(final long index) {
+        return UNSAFE.getLongVolatile(this.states, stateOffset(index));
+    }
+
+    private boolean stateCompareAndSwap(final long index, final long expect, final long update) {
+        return UNSAFE.compareAndSwapLong(this.states, stateOffset(index), expect, update);
+    }
+
+    private void statePutOrdered(final long index, final long value) {
+        UNSAFE.putOrderedLong(this.states, stateOffset(index), value);
+    }
+
+    private void objectPutOrderedLong(final long offset, final long value) {
+        UNSAFE.putOrderedLong(this, offset, value);
+    }
+
+    /**
+     * 写入元素，不会等待消费者，队列满时覆盖最旧的元素
+     *
+     * @param value 元素
+     */
+    public void put(@NonNull T value) {
+        final long sequence = UNSAFE.getAndAddLong(this, WRITE_INDEX_OFFSET, 1);
+        final long index = sequence & indexMask;
+        for (; ; ) {
+            final long current = stateGetVolatile(index);
+            // 被停顿的生产者落后了一圈，槽位中已经是更新的元素，这个元素算作丢失
+            if (sequenceOf(current) > sequence) {
+                return;
+            }
+            if (isWriting(current)) {
+                // 更旧的序号正在写入或者消费者正在取出，持有者释放之后再覆盖
+                Thread.yield();
+                continue;
+            }
+            if (stateCompareAndSwap(index, current, state(sequence, WRITING))) {
+                // 写入中的槽位只有持有者能修改，普通写入加上有序写入的状态就足够了
+                bufferPut(index, value);
+                statePutOrdered(index, state(sequence, 0));
+                return;
+            }
+        }
+    }
+
+    /**
+     * 尝试读取，只能由一个消费者线程调用，被覆盖的元素会被跳过并计入dropped
+     *
+     * @return 元素，队列空或者下一个元素还没有写完时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long readIndex = this.readIndex;
+        for (; ; ) {
+            final long index = readIndex & indexMask;
+            final long current = stateGetVolatile(index);
+            final long sequence = sequenceOf(current);
+            if (sequence < readIndex || (sequence == readIndex && isWriting(current))) {
+                return null;
+            }
+            if (sequence == readIndex) {
+                // 占住槽位再取出元素并释放引用，失败说明已经被覆盖，重新检查
+                if (!stateCompareAndSwap(index, current, state(sequence, WRITING))) {
+                    continue;
+                }
+                final T value = (T) bufferGet(index);
+                bufferPut(index, null);
+                statePutOrdered(index, current);
+                objectPutOrderedLong(READ_INDEX_OFFSET, readIndex + 1);
+                return value;
+            }
+            // 被生产者套圈，跳到还没有被覆盖的最旧的位置
+            final long oldest = this.writeIndex - indexMask - 1;
+            objectPutOrderedLong(DROPPED_OFFSET, this.dropped + oldest - readIndex);
+            objectPutOrderedLong(READ_INDEX_OFFSET, readIndex = oldest);
+        }
+    }
+
+    /**
+     * 批量读取当前已有的元素，只能由一个消费者线程调用
+     *
+     * @param consumer 元素的消费者
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     */
+    public int drainTo(@NonNull Consumer<? super T> consumer, final int max) {
+        int count = 0;
+        T value;
+        while (count < max && Objects.nonNull(value = poll())) {
+            consumer.accept(value);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 消费者跳过的被覆盖的元素数量
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 队列中的元素数量
+     */
+    public int size() {
+        final long readIndex = this.readIndex;
+        final long writeIndex = this.writeIndex;
+        return (int) Math.max(0, Math.min(writeIndex - readIndex, capacity()));
+    }
+}
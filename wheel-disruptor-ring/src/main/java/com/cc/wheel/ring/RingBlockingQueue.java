@@ -0,0 +1,162 @@
+package com.cc.wheel.ring;
+
+import com.cc.wheel.ring.wait.BackoffWaitStrategy;
+import com.cc.wheel.ring.wait.WaitStrategy;
+import lombok.NonNull;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于RingBuffer的阻塞队列，可以用作ThreadPoolExecutor的工作队列
+ * 迭代器是创建时的弱一致快照，环形队列不能删除中间的元素，所以remove(Object)总是返回false
+ * put和take不使用RingBuffer的put和take，它们先占用下标再等待，被中断时占用的槽位会被放弃，
+ * 这里在槽位可用之前不占用下标，ThreadPoolExecutor中断空闲的工作线程不会破坏队列
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class RingBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private final RingBuffer<E> ringBuffer;
+
+    /**
+     * 默认退避等待，线程池空闲的工作线程不会一直占用CPU
+     *
+     * @param capacity 容量，必须是2的幂
+     */
+    public RingBlockingQueue(final int capacity) {
+        this(capacity, new BackoffWaitStrategy());
+    }
+
+    public RingBlockingQueue(final int capacity, @NonNull WaitStrategy waitStrategy) {
+        this(new RingBuffer<>(capacity, RingMode.MPMC, waitStrategy));
+    }
+
+    public RingBlockingQueue(@NonNull RingBuffer<E> ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public boolean offer(@NonNull E e) {
+        return ringBuffer.offer(e);
+    }
+
+    @Override
+    public boolean offer(@NonNull E e, long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return ringBuffer.offer(e, timeout, unit);
+    }
+
+    @Override
+    public void put(@NonNull E e) throws InterruptedException {
+        while (!ringBuffer.offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+            // 只有超时才会返回false
+        }
+    }
+
+    @Override
+    public E poll() {
+        return ringBuffer.poll();
+    }
+
+    @Override
+    public E poll(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return ringBuffer.poll(timeout, unit);
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E result;
+        while (Objects.isNull(result = ringBuffer.poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS))) {
+            // 只有超时才会返回null
+        }
+        return result;
+    }
+
+    @Override
+    public E peek() {
+        return ringBuffer.peek();
+    }
+
+    @Override
+    public int size() {
+        return ringBuffer.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException("Can not drain to self");
+        }
+        return ringBuffer.drainTo(c::add, maxElements);
+    }
+
+    /**
+     * 环形队列不能删除中间的元素，ThreadPoolExecutor会在remove失败时放弃移除任务
+     *
+     * @param o 元素
+     * @return false
+     */
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return ringBuffer.toArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(@NonNull T[] a) {
+        final Object[] snapshot = ringBuffer.toArray();
+        if (a.length < snapshot.length) {
+            return (T[]) Arrays.copyOf(snapshot, snapshot.length, a.getClass());
+        }
+        System.arraycopy(snapshot, 0, a, 0, snapshot.length);
+        if (a.length > snapshot.length) {
+            a[snapshot.length] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Object[] snapshot = ringBuffer.toArray();
+        return new Iterator<>() {
+
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (cursor >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) snapshot[cursor++];
+            }
+        };
+    }
+}
@@ -1,14 +1,19 @@
 package com.cc.wheel.ring;
 
+import com.cc.wheel.ring.metrics.RingMetrics;
+import com.cc.wheel.ring.utils.PaddedSlots;
+import com.cc.wheel.ring.utils.UnsafeUtils;
+import com.cc.wheel.ring.wait.WaitStrategy;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import sun.misc.Unsafe;
 
-import java.lang.reflect.Field;
-import java.security.AccessController;
-import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * @author cc
@@ -18,37 +23,26 @@ import java.util.concurrent.ArrayBlockingQueue;
 @SuppressWarnings("unused")
 public class RingBuffer<T> {
 
-    private static final Unsafe UNSAFE;
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
 
-    static {
-        try {
-            final PrivilegedExceptionAction<Unsafe> action = () -> {
-                Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
-                theUnsafe.setAccessible(true);
-                return (Unsafe) theUnsafe.get(null);
-            };
-            UNSAFE = AccessController.doPrivileged(action);
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to load unsafe", e);
-        }
-    }
-
-    private static final int BUFFER_BASE_OFFSET;
     private static final int BUFFER_ELEMENT_SHIFT;
     private static final int BUFFER_PADDING_SHIFT;
 
+    /**
+     * 默认的槽位间隔，每个槽位独占一个缓存行
+     */
+    public static final int DEFAULT_SLOT_STRIDE;
+
     private static final long WRITE_INDEX_OFFSET;
     private static final long READ_INDEX_OFFSET;
 
     static {
         try {
-            final int scale = UNSAFE.arrayIndexScale(Object[].class);
             // 每个element的偏移量
-            BUFFER_ELEMENT_SHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            BUFFER_ELEMENT_SHIFT = PaddedSlots.elementShift(Object[].class);
             // 伪共享填充的偏移量
-            BUFFER_PADDING_SHIFT = 31 - Integer.numberOfLeadingZeros(64 / scale);
-            // 数组的基地址 包括数组前面的填充
-            BUFFER_BASE_OFFSET = UNSAFE.arrayBaseOffset(Object[].class) + (1 << BUFFER_ELEMENT_SHIFT << BUFFER_PADDING_SHIFT);
+            BUFFER_PADDING_SHIFT = PaddedSlots.paddingShift(Object[].class);
+            DEFAULT_SLOT_STRIDE = 1 << BUFFER_PADDING_SHIFT;
 
             READ_INDEX_OFFSET = UNSAFE.objectFieldOffset(RingBuffer.class.getDeclaredField("readIndex"));
             WRITE_INDEX_OFFSET = UNSAFE.objectFieldOffset(RingBuffer.class.getDeclaredField("writeIndex"));
@@ -59,64 +53,704 @@ public class RingBuffer<T> {
 
     private final int indexMask;
 
+    private final RingMode mode;
+
+    private final WaitStrategy waitStrategy;
+
+    private final Object[] buffer;
+
+    /**
+     * 槽位间隔对应的偏移量
+     */
+    private final int paddingShift;
+
+    /**
+     * 数组的基地址 包括数组前面的填充
+     */
+    private final long bufferBaseOffset;
+
+    /**
+     * 统计，为null时不统计
+     */
+    private final RingMetrics metrics;
+
+    /**
+     * 每个槽位的元素写入的时间，只在统计时使用
+     */
+    private final long[] stamps;
+
     private long l1, l2, l3, l4, l5, l6, l7;
 
     private volatile long readIndex;
 
-    private final Object[] buffer;
+    /**
+     * 消费者缓存的写下标，只在SPSC模式下由消费者线程读写
+     */
+    private long cachedWriteIndex;
+
+    private long p1, p2, p3, p4, p5, p6;
 
     private volatile long writeIndex;
 
+    /**
+     * 生产者缓存的读下标，只在SPSC模式下由生产者线程读写
+     */
+    private long cachedReadIndex;
+
     private long l9, l10, l11, l12, l13, l14, l15;
 
     public RingBuffer(final int bufferSize) {
+        this(bufferSize, RingMode.MPMC);
+    }
+
+    public RingBuffer(final int bufferSize, @NonNull RingMode mode) {
+        this(bufferSize, mode, new YieldingWaitStrategy());
+    }
+
+    /**
+     * @param bufferSize   容量，必须是2的幂
+     * @param mode         生产者消费者模式，SPSC模式下只允许一个生产者线程和一个消费者线程
+     * @param waitStrategy 槽位忙时的等待策略
+     */
+    public RingBuffer(final int bufferSize, @NonNull RingMode mode, @NonNull WaitStrategy waitStrategy) {
+        this(bufferSize, mode, waitStrategy, DEFAULT_SLOT_STRIDE);
+    }
+
+    /**
+     * 槽位间隔决定了相邻元素之间隔了多少个引用，间隔越小占用的内存越少，但是相邻的槽位会落在同一个缓存行上产生伪共享，
+     * 读写下标的填充不受影响
+     *
+     * @param bufferSize   容量，必须是2的幂
+     * @param mode         生产者消费者模式，SPSC模式下只允许一个生产者线程和一个消费者线程
+     * @param waitStrategy 槽位忙时的等待策略
+     * @param slotStride   槽位间隔，必须是2的幂，1表示紧凑排列，最大不超过两个缓存行（相邻缓存行预取）
+     */
+    public RingBuffer(final int bufferSize, @NonNull RingMode mode, @NonNull WaitStrategy waitStrategy, final int slotStride) {
+        this(bufferSize, mode, waitStrategy, slotStride, null);
+    }
+
+    /**
+     * 统计模式下写入时记录时间戳，读取时把元素在队列中停留的时间记录到直方图中，并统计等待次数和满/空次数
+     *
+     * @param bufferSize   容量，必须是2的幂
+     * @param mode         生产者消费者模式，SPSC模式下只允许一个生产者线程和一个消费者线程
+     * @param waitStrategy 槽位忙时的等待策略
+     * @param slotStride   槽位间隔，必须是2的幂，1表示紧凑排列，最大不超过两个缓存行（相邻缓存行预取）
+     * @param metrics      统计，为null时不统计
+     */
+    public RingBuffer(final int bufferSize, @NonNull RingMode mode, @NonNull WaitStrategy waitStrategy,
+                      final int slotStride, final RingMetrics metrics) {
         if (bufferSize < 1) {
             throw new IllegalArgumentException("bufferSize must not be less than 1");
         }
         if (Integer.bitCount(bufferSize) != 1) {
             throw new IllegalArgumentException("bufferSize must be a power of 2");
         }
+        if (slotStride < 1 || Integer.bitCount(slotStride) != 1
+                || (slotStride << BUFFER_ELEMENT_SHIFT) > 2 * PaddedSlots.CACHE_LINE_SIZE) {
+            throw new IllegalArgumentException("slotStride must be a power of 2 and not more than two cache lines");
+        }
         this.indexMask = bufferSize - 1;
+        this.mode = mode;
+        this.waitStrategy = waitStrategy;
+        this.paddingShift = Integer.numberOfTrailingZeros(slotStride);
+        this.bufferBaseOffset = PaddedSlots.baseOffset(Object[].class, paddingShift);
         // 包括了element之间的填充
-        this.buffer = new Object[(bufferSize + 1) << BUFFER_PADDING_SHIFT];
+        this.buffer = new Object[PaddedSlots.length(bufferSize, paddingShift)];
+        this.metrics = metrics;
+        this.stamps = Objects.isNull(metrics) ? null : new long[bufferSize];
+
+    }
 
+    private long bufferOffset(final long index) {
+        return bufferBaseOffset + (index << BUFFER_ELEMENT_SHIFT << paddingShift);
     }
 
     private boolean bufferCompareNullAndSwap(final long index, Object value) {
-        return UNSAFE.compareAndSwapObject(this.buffer, BUFFER_BASE_OFFSET + (index << BUFFER_ELEMENT_SHIFT << BUFFER_PADDING_SHIFT), null, value);
+        return UNSAFE.compareAndSwapObject(this.buffer, bufferOffset(index), null, value);
     }
 
     private Object bufferGetAndSetNull(final long index) {
-        return UNSAFE.getAndSetObject(this.buffer, BUFFER_BASE_OFFSET + (index << BUFFER_ELEMENT_SHIFT << BUFFER_PADDING_SHIFT), null);
+        return UNSAFE.getAndSetObject(this.buffer, bufferOffset(index), null);
+    }
+
+    private Object bufferGetVolatile(final long index) {
+        return UNSAFE.getObjectVolatile(this.buffer, bufferOffset(index));
+    }
+
+    private Object bufferGet(final long index) {
+        return UNSAFE.getObject(this.buffer, bufferOffset(index));
+    }
+
+    private void bufferSet(final long index, Object value) {
+        UNSAFE.putObject(this.buffer, bufferOffset(index), value);
     }
 
     private long objectGetAndIncrementLong(final long offset) {
         return UNSAFE.getAndAddLong(this, offset, 1);
     }
 
+    private long objectGetAndAddLong(final long offset, final long delta) {
+        return UNSAFE.getAndAddLong(this, offset, delta);
+    }
+
+    private boolean objectCompareAndSwapLong(final long offset, final long expect, final long update) {
+        return UNSAFE.compareAndSwapLong(this, offset, expect, update);
+    }
+
+    private void objectPutOrderedLong(final long offset, final long value) {
+        UNSAFE.putOrderedLong(this, offset, value);
+    }
+
     public void put(@NonNull T value) throws InterruptedException {
+        if (mode == RingMode.SPSC) {
+            singlePut(value);
+            return;
+        }
         final long writeIndex = objectGetAndIncrementLong(WRITE_INDEX_OFFSET) & indexMask;
-        while (!Thread.interrupted()) {
-            if (bufferCompareNullAndSwap(writeIndex, value)) {
-                return;
+        int counter = 0;
+        while (!publish(writeIndex, value)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
             }
-            Thread.yield();
+            counter = producerWait(counter);
         }
-        throw new InterruptedException();
+        waitStrategy.signalAll();
     }
 
     @SuppressWarnings("unchecked")
     public @NonNull T take() throws InterruptedException {
+        if (mode == RingMode.SPSC) {
+            return singleTake();
+        }
         final long readIndex = objectGetAndIncrementLong(READ_INDEX_OFFSET) & indexMask;
-        while (!Thread.interrupted()) {
-            final Object result;
-            if (Objects.nonNull(result = bufferGetAndSetNull(readIndex))) {
+        int counter = 0;
+        Object result;
+        while (Objects.isNull(result = bufferGetAndSetNull(readIndex))) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            counter = consumerWait(counter);
+        }
+        recordResidency(readIndex);
+        waitStrategy.signalAll();
+        return (T) result;
+    }
+
+    /**
+     * 尝试写入，队列满时立即返回，不会占用下标
+     *
+     * @param value 元素
+     * @return 是否写入成功
+     */
+    public boolean offer(@NonNull T value) {
+        if (mode == RingMode.SPSC) {
+            return singleOffer(value);
+        }
+        for (; ; ) {
+            final long writeIndex = this.writeIndex;
+            // 上一圈的元素还没有被占用或者取走，说明队列已满
+            if (writeIndex - this.readIndex > indexMask || Objects.nonNull(bufferGet(writeIndex & indexMask))) {
+                countFull();
+                return false;
+            }
+            if (objectCompareAndSwapLong(WRITE_INDEX_OFFSET, writeIndex, writeIndex + 1)) {
+                int counter = 0;
+                // 极少数情况下槽位会被更早占用下标的生产者抢先写入，只能等待消费者取走
+                while (!publish(writeIndex & indexMask, value)) {
+                    counter = idleUninterruptibly(counter);
+                }
+                waitStrategy.signalAll();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 尝试写入，队列满时最多等待timeout
+     *
+     * @param value   元素
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 是否写入成功
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public boolean offer(@NonNull T value, final long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int counter = 0;
+        while (!offer(value)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            counter = producerIdle(counter);
+        }
+        return true;
+    }
+
+    /**
+     * 尝试读取，队列空时立即返回，不会占用下标
+     *
+     * @return 元素，队列空时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (mode == RingMode.SPSC) {
+            return singlePoll();
+        }
+        for (; ; ) {
+            final long readIndex = this.readIndex;
+            // 下标还没有被生产者占用，或者占用了还没有写入，都当作队列为空
+            if (readIndex >= this.writeIndex || Objects.isNull(bufferGet(readIndex & indexMask))) {
+                countEmpty();
+                return null;
+            }
+            if (objectCompareAndSwapLong(READ_INDEX_OFFSET, readIndex, readIndex + 1)) {
+                int counter = 0;
+                Object result;
+                // 极少数情况下槽位的元素会被更早占用下标的消费者抢先取走，只能等待下一个元素写入
+                while (Objects.isNull(result = bufferGetAndSetNull(readIndex & indexMask))) {
+                    counter = idleUninterruptibly(counter);
+                }
+                recordResidency(readIndex & indexMask);
+                waitStrategy.signalAll();
                 return (T) result;
             }
+        }
+    }
+
+    /**
+     * 尝试读取，队列空时最多等待timeout
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 元素，超时返回null
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public T poll(final long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int counter = 0;
+        T result;
+        while (Objects.isNull(result = poll())) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            counter = consumerIdle(counter);
+        }
+        return result;
+    }
+
+    /**
+     * 查看队首的元素但不取出，并发修改时只是一个近似值
+     *
+     * @return 队首的元素，队列为空或者队首的元素还没有写入时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        final long readIndex = this.readIndex;
+        if (readIndex >= this.writeIndex) {
+            return null;
+        }
+        return (T) bufferGetVolatile(readIndex & indexMask);
+    }
+
+    /**
+     * 队列中当前元素的快照，并发修改时是弱一致的
+     *
+     * @return 从队首到队尾的元素
+     */
+    public Object[] toArray() {
+        final long readIndex = this.readIndex;
+        final long size = Math.max(0, Math.min(this.writeIndex - readIndex, capacity()));
+        final Object[] result = new Object[(int) size];
+        int count = 0;
+        for (long i = 0; i < size; i++) {
+            final Object value = bufferGetVolatile((readIndex + i) & indexMask);
+            if (Objects.nonNull(value)) {
+                result[count++] = value;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @return 统计，没有开启时返回null
+     */
+    public RingMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return 容量
+     */
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 队列中的元素数量
+     */
+    public int size() {
+        // 先读读下标，保证结果不会因为读取期间的消费而偏大太多
+        final long readIndex = this.readIndex;
+        final long writeIndex = this.writeIndex;
+        return (int) Math.max(0, Math.min(writeIndex - readIndex, capacity()));
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 剩余容量
+     */
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+
+    /**
+     * 批量写入，一次原子操作占用连续的len个下标，再逐个填充，队列满时会等待消费者
+     * 已占用的下标必须填满，否则消费者会一直等待空洞，所以只在占用之前响应中断，之后等待时只保留中断标记
+     *
+     * @param items 元素数组，指定范围内不允许有null
+     * @param off   起始位置
+     * @param len   数量
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public void putAll(@NonNull T[] items, final int off, final int len) throws InterruptedException {
+        Objects.checkFromIndexSize(off, len, items.length);
+        for (int i = off; i < off + len; i++) {
+            // 先检查再占用下标，避免占用了下标却写不进去，在队列中留下空洞
+            Objects.requireNonNull(items[i], "items must not contain null");
+        }
+        if (len == 0) {
+            return;
+        }
+        if (mode == RingMode.SPSC) {
+            singlePutAll(items, off, len);
+            return;
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        final long start = objectGetAndAddLong(WRITE_INDEX_OFFSET, len);
+        boolean interrupted = false;
+        for (int i = 0; i < len; i++) {
+            final long writeIndex = (start + i) & indexMask;
+            int counter = 0;
+            while (!publish(writeIndex, items[off + i])) {
+                if (counter == 0) {
+                    // 等待之前先通知消费者已经写入的元素，否则阻塞策略下双方可能互相等待
+                    waitStrategy.signalAll();
+                }
+                try {
+                    counter = producerWait(counter);
+                } catch (InterruptedException e) {
+                    // 中断标记已经被清除，之后的等待不会立即返回
+                    interrupted = true;
+                    counter++;
+                }
+            }
+        }
+        waitStrategy.signalAll();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 批量读取当前已有的元素，最多max个，不会等待新元素写入
+     * 一次CAS占用连续的下标后逐个交给consumer，consumer不应抛出异常，否则已占用的元素会丢失
+     * 已占用的下标必须读完，所以等待生产者写入时不响应中断，只保留中断标记
+     *
+     * @param consumer 元素的消费者
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(@NonNull Consumer<? super T> consumer, final int max) {
+        if (max <= 0) {
+            return 0;
+        }
+        if (mode == RingMode.SPSC) {
+            return singleDrainTo(consumer, max);
+        }
+        long start;
+        int count;
+        do {
+            start = this.readIndex;
+            final long available = this.writeIndex - start;
+            if (available <= 0) {
+                countEmpty();
+                return 0;
+            }
+            count = (int) Math.min(available, max);
+        } while (!objectCompareAndSwapLong(READ_INDEX_OFFSET, start, start + count));
+
+        for (int i = 0; i < count; i++) {
+            final long readIndex = (start + i) & indexMask;
+            Object result;
+            int counter = 0;
+            // 下标已经被生产者占用，但元素可能还没有写入
+            while (Objects.isNull(result = bufferGetAndSetNull(readIndex))) {
+                if (counter == 0) {
+                    // 等待之前先通知生产者已经空出的位置
+                    waitStrategy.signalAll();
+                }
+                counter = idleUninterruptibly(counter);
+            }
+            recordResidency(readIndex);
+            consumer.accept((T) result);
+        }
+        waitStrategy.signalAll();
+        return count;
+    }
+
+    /**
+     * SPSC模式的写入，写下标只有生产者线程会修改，所以不需要原子操作
+     * 只有当缓存的读下标显示队列已满时，才去读取消费者的volatile读下标
+     */
+    private void singlePut(final T value) throws InterruptedException {
+        final long writeIndex = this.writeIndex;
+        final long wrapPoint = writeIndex - indexMask - 1;
+        int counter = 0;
+        while (cachedReadIndex <= wrapPoint) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if ((cachedReadIndex = this.readIndex) <= wrapPoint) {
+                counter = producerWait(counter);
+            }
+        }
+        stamp(writeIndex & indexMask);
+        bufferSet(writeIndex & indexMask, value);
+        // lazySet 保证元素的写入先于写下标的发布
+        objectPutOrderedLong(WRITE_INDEX_OFFSET, writeIndex + 1);
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * SPSC模式的读取，读下标只有消费者线程会修改，所以不需要原子操作
+     * 只有当缓存的写下标显示队列为空时，才去读取生产者的volatile写下标
+     */
+    @SuppressWarnings("unchecked")
+    private T singleTake() throws InterruptedException {
+        final long readIndex = this.readIndex;
+        int counter = 0;
+        while (cachedWriteIndex <= readIndex) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if ((cachedWriteIndex = this.writeIndex) <= readIndex) {
+                counter = consumerWait(counter);
+            }
+        }
+        final long index = readIndex & indexMask;
+        final Object result = bufferGet(index);
+        recordResidency(index);
+        // 释放引用，方便GC
+        bufferSet(index, null);
+        // lazySet 保证元素的读取先于读下标的发布
+        objectPutOrderedLong(READ_INDEX_OFFSET, readIndex + 1);
+        waitStrategy.signalAll();
+        return (T) result;
+    }
+
+    /**
+     * SPSC模式的尝试写入
+     */
+    private boolean singleOffer(final T value) {
+        final long writeIndex = this.writeIndex;
+        final long wrapPoint = writeIndex - indexMask - 1;
+        if (cachedReadIndex <= wrapPoint && (cachedReadIndex = this.readIndex) <= wrapPoint) {
+            countFull();
+            return false;
+        }
+        stamp(writeIndex & indexMask);
+        bufferSet(writeIndex & indexMask, value);
+        objectPutOrderedLong(WRITE_INDEX_OFFSET, writeIndex + 1);
+        waitStrategy.signalAll();
+        return true;
+    }
+
+    /**
+     * SPSC模式的尝试读取
+     */
+    @SuppressWarnings("unchecked")
+    private T singlePoll() {
+        final long readIndex = this.readIndex;
+        if (cachedWriteIndex <= readIndex && (cachedWriteIndex = this.writeIndex) <= readIndex) {
+            countEmpty();
+            return null;
+        }
+        final long index = readIndex & indexMask;
+        final Object result = bufferGet(index);
+        recordResidency(index);
+        bufferSet(index, null);
+        objectPutOrderedLong(READ_INDEX_OFFSET, readIndex + 1);
+        waitStrategy.signalAll();
+        return (T) result;
+    }
+
+    /**
+     * 下标已经占用，不能放弃，只能等待，等待期间的中断留给调用方处理
+     */
+    private int idleUninterruptibly(int counter) {
+        try {
+            return waitStrategy.idle(counter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             Thread.yield();
+            return counter + 1;
+        }
+    }
+
+    /**
+     * 生产者等待一次
+     */
+    private int producerIdle(final int counter) throws InterruptedException {
+        if (Objects.nonNull(metrics)) {
+            metrics.producerSpin();
+        }
+        return waitStrategy.idle(counter);
+    }
+
+    /**
+     * 阻塞写入时因为队列满等待，第一次等待算作一次满事件
+     */
+    private int producerWait(final int counter) throws InterruptedException {
+        if (counter == 0) {
+            countFull();
+        }
+        return producerIdle(counter);
+    }
+
+    /**
+     * 消费者等待一次
+     */
+    private int consumerIdle(final int counter) throws InterruptedException {
+        if (Objects.nonNull(metrics)) {
+            metrics.consumerSpin();
+        }
+        return waitStrategy.idle(counter);
+    }
+
+    /**
+     * 阻塞读取时因为队列空等待，第一次等待算作一次空事件
+     */
+    private int consumerWait(final int counter) throws InterruptedException {
+        if (counter == 0) {
+            countEmpty();
+        }
+        return consumerIdle(counter);
+    }
+
+    private void countFull() {
+        if (Objects.nonNull(metrics)) {
+            metrics.full();
+        }
+    }
+
+    private void countEmpty() {
+        if (Objects.nonNull(metrics)) {
+            metrics.empty();
+        }
+    }
+
+    /**
+     * 记录元素写入槽位的时间，必须在元素发布之前调用
+     */
+    private void stamp(final long index) {
+        if (Objects.nonNull(metrics)) {
+            stamps[(int) index] = System.nanoTime();
+        }
+    }
 
+    /**
+     * 记录元素在队列中停留的时间，必须在槽位释放之前调用
+     * MPMC模式下槽位在读取时已经释放，极少数情况下会读到下一圈刚写入的时间戳，只是一个近似值
+     */
+    private void recordResidency(final long index) {
+        if (Objects.nonNull(metrics)) {
+            metrics.recordResidency(System.nanoTime() - stamps[(int) index]);
         }
-        throw new InterruptedException();
+    }
+
+    /**
+     * MPMC模式写入槽位，统计时先确认槽位为空再记录时间戳，避免覆盖上一圈还没有被读取的元素的时间戳
+     */
+    private boolean publish(final long index, final Object value) {
+        if (Objects.nonNull(metrics)) {
+            if (Objects.nonNull(bufferGetVolatile(index))) {
+                return false;
+            }
+            stamp(index);
+        }
+        return bufferCompareNullAndSwap(index, value);
+    }
+
+    /**
+     * SPSC模式的批量写入，每次写入当前所有的空闲位置后只发布一次写下标
+     */
+    private void singlePutAll(final T[] items, final int off, final int len) throws InterruptedException {
+        long writeIndex = this.writeIndex;
+        int done = 0;
+        int counter = 0;
+        while (done < len) {
+            long free = cachedReadIndex + indexMask + 1 - writeIndex;
+            if (free <= 0 && (free = (cachedReadIndex = this.readIndex) + indexMask + 1 - writeIndex) <= 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                counter = producerWait(counter);
+                continue;
+            }
+            counter = 0;
+            final int count = (int) Math.min(free, len - done);
+            for (int i = 0; i < count; i++) {
+                stamp((writeIndex + i) & indexMask);
+                bufferSet((writeIndex + i) & indexMask, items[off + done + i]);
+            }
+            writeIndex += count;
+            done += count;
+            objectPutOrderedLong(WRITE_INDEX_OFFSET, writeIndex);
+            waitStrategy.signalAll();
+        }
+    }
+
+    /**
+     * SPSC模式的批量读取，读取完所有的元素后只发布一次读下标
+     */
+    @SuppressWarnings("unchecked")
+    private int singleDrainTo(final Consumer<? super T> consumer, final int max) {
+        final long readIndex = this.readIndex;
+        long available = cachedWriteIndex - readIndex;
+        if (available <= 0 && (available = (cachedWriteIndex = this.writeIndex) - readIndex) <= 0) {
+            countEmpty();
+            return 0;
+        }
+        final int count = (int) Math.min(available, max);
+        int done = 0;
+        try {
+            while (done < count) {
+                final long index = (readIndex + done) & indexMask;
+                final Object result = bufferGet(index);
+                recordResidency(index);
+                bufferSet(index, null);
+                done++;
+                consumer.accept((T) result);
+            }
+        } finally {
+            // consumer抛出异常时，也要发布已经取出的元素
+            objectPutOrderedLong(READ_INDEX_OFFSET, readIndex + done);
+            waitStrategy.signalAll();
+        }
+        return count;
     }
 
     // do test
@@ -124,6 +758,7 @@ public class RingBuffer<T> {
     private final static long ITERATIONS = 2L * 3L * 1000L * 1000L * 5L;
     private final static ArrayBlockingQueue<String> compare = new ArrayBlockingQueue<>(1 << 5);
     private final static RingBuffer<String> target = new RingBuffer<>(1 << 5);
+    private final static RingBuffer<String> singleTarget = new RingBuffer<>(1 << 5, RingMode.SPSC);
 
     public static void main(String[] args) throws InterruptedException {
         final int MAX_THREAD = 6;
@@ -136,6 +771,10 @@ public class RingBuffer<T> {
         start = System.currentTimeMillis();
         doTest(1, 1, true);
         log.info("The ring buffer cost: {} when thread {}", System.currentTimeMillis() - start, "1-1");
+        System.gc();
+        start = System.currentTimeMillis();
+        doTest(1, 1, true, singleTarget);
+        log.info("The spsc ring buffer cost: {} when thread {}", System.currentTimeMillis() - start, "1-1");
 
         for (int i = 1; i < MAX_THREAD; i++) {
             System.gc();
@@ -152,6 +791,10 @@ public class RingBuffer<T> {
     }
 
     public static void doTest(final int NUM_P_THREADS, final int NUM_C_THREADS, boolean isTarget) throws InterruptedException {
+        doTest(NUM_P_THREADS, NUM_C_THREADS, isTarget, target);
+    }
+
+    public static void doTest(final int NUM_P_THREADS, final int NUM_C_THREADS, boolean isTarget, RingBuffer<String> target) throws InterruptedException {
         Thread[] pThreads = new Thread[NUM_P_THREADS];
         Thread[] cThreads = new Thread[NUM_C_THREADS];
         final long write = ITERATIONS / NUM_P_THREADS;
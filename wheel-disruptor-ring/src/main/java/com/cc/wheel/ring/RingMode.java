@@ -0,0 +1,20 @@
+package com.cc.wheel.ring;
+
+/**
+ * 环形队列的生产者消费者模式
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public enum RingMode {
+
+    /**
+     * 多生产者多消费者，下标通过原子操作争抢，元素通过CAS写入
+     */
+    MPMC,
+
+    /**
+     * 单生产者单消费者，下标只由各自的线程修改，热路径上没有原子的读改写操作
+     */
+    SPSC
+}
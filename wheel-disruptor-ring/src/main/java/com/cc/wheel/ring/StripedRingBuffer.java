@@ -0,0 +1,252 @@
+package com.cc.wheel.ring;
+
+import com.cc.wheel.ring.wait.WaitStrategy;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
+import lombok.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 分道的环形队列，由多个独立的RingBuffer组成，生产者线程第一次写入时按照轮询分配到一个固定的车道，之后只写入这个车道，
+ * 不同车道的下标在不同的缓存行上，生产者很多时不会都挤在同一个写下标上
+ * 消费者可以轮询所有车道，也可以绑定车道消费
+ * <ul>
+ *     <li>MPMC车道：多个生产者可以共用一个车道，和RingBuffer一样不保证顺序</li>
+ *     <li>SPSC车道：每个生产者线程独占一个车道，同时存活的生产者线程数不能超过车道数，每个车道只能有一个消费者
+ *     （一个轮询所有车道的消费者，或者每个车道绑定一个消费者），车道内先进先出</li>
+ * </ul>
+ * SPSC车道在生产者线程结束或者调用releaseLane之后回收，分配给之后的生产者线程；
+ * 线程池中的线程不会结束，不再写入时应该调用releaseLane，否则没有空闲车道时新的生产者线程会抛出IllegalStateException
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class StripedRingBuffer<T> {
+
+    private final RingBuffer<T>[] lanes;
+
+    private final int laneMask;
+
+    private final RingMode laneMode;
+
+    private final WaitStrategy waitStrategy;
+
+    private final AtomicInteger laneCounter = new AtomicInteger(0);
+
+    /**
+     * SPSC车道的生产者线程，线程结束或者交还车道之后车道可以分配给新的生产者线程
+     */
+    private final AtomicReferenceArray<Thread> laneOwners;
+
+    /**
+     * 生产者线程的车道，还没有分配时为null
+     */
+    private final ThreadLocal<Integer> producerLane = new ThreadLocal<>();
+
+    /**
+     * 轮询消费的起始车道，只是一个提示，并发修改也没有关系
+     */
+    private int nextLane;
+
+    public StripedRingBuffer(final int laneCount, final int laneSize) {
+        this(laneCount, laneSize, RingMode.MPMC, new YieldingWaitStrategy());
+    }
+
+    /**
+     * @param laneCount    车道数量，必须是2的幂，一般取CPU核数
+     * @param laneSize     每个车道的容量，必须是2的幂
+     * @param laneMode     车道模式，SPSC时每个生产者线程独占一个车道，保证车道内先进先出
+     * @param waitStrategy 所有车道共用的等待策略，任意车道的状态改变都会唤醒等待的线程
+     */
+    @SuppressWarnings("unchecked")
+    public StripedRingBuffer(final int laneCount, final int laneSize,
+                             @NonNull RingMode laneMode, @NonNull WaitStrategy waitStrategy) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must not be less than 1");
+        }
+        if (Integer.bitCount(laneCount) != 1) {
+            throw new IllegalArgumentException("laneCount must be a power of 2");
+        }
+        this.laneMask = laneCount - 1;
+        this.laneMode = laneMode;
+        this.waitStrategy = waitStrategy;
+        this.lanes = new RingBuffer[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            this.lanes[i] = new RingBuffer<>(laneSize, laneMode, waitStrategy);
+        }
+        this.laneOwners = new AtomicReferenceArray<>(laneCount);
+    }
+
+    private int lane() {
+        Integer lane = producerLane.get();
+        if (Objects.isNull(lane)) {
+            lane = assignLane();
+            producerLane.set(lane);
+        }
+        return lane;
+    }
+
+    private int assignLane() {
+        final int start = laneCounter.getAndIncrement();
+        if (laneMode != RingMode.SPSC) {
+            return start & laneMask;
+        }
+        final Thread current = Thread.currentThread();
+        for (int i = 0; i <= laneMask; i++) {
+            final int lane = (start + i) & laneMask;
+            final Thread owner = laneOwners.get(lane);
+            // 线程结束之前的写入对发现它结束的线程可见，接手车道之后车道仍然只有一个生产者
+            if ((Objects.isNull(owner) || !owner.isAlive()) && laneOwners.compareAndSet(lane, owner, current)) {
+                return lane;
+            }
+        }
+        throw new IllegalStateException("Live producer threads must not be more than " + lanes.length + " in SPSC lanes");
+    }
+
+    /**
+     * 当前线程不再作为生产者写入，SPSC车道交还给之后的生产者线程，之后再写入时重新分配车道
+     * 调用之前当前线程写入的元素仍然留在原来的车道里
+     */
+    public void releaseLane() {
+        final Integer lane = producerLane.get();
+        if (Objects.isNull(lane)) {
+            return;
+        }
+        producerLane.remove();
+        laneOwners.compareAndSet(lane, Thread.currentThread(), null);
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * @return 当前线程作为生产者时写入的车道
+     */
+    public int currentLane() {
+        return lane();
+    }
+
+    /**
+     * 写入当前线程的车道，车道满时等待
+     *
+     * @param value 元素
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public void put(@NonNull T value) throws InterruptedException {
+        lanes[lane()].put(value);
+    }
+
+    /**
+     * 尝试写入当前线程的车道，车道满时立即返回
+     *
+     * @param value 元素
+     * @return 是否写入成功
+     */
+    public boolean offer(@NonNull T value) {
+        return lanes[lane()].offer(value);
+    }
+
+    /**
+     * 从指定的车道读取，车道为空时等待
+     *
+     * @param lane 车道
+     * @return 元素
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public T take(final int lane) throws InterruptedException {
+        return lanes[lane & laneMask].take();
+    }
+
+    /**
+     * 尝试从指定的车道读取
+     *
+     * @param lane 车道
+     * @return 元素，车道为空时返回null
+     */
+    public T poll(final int lane) {
+        return lanes[lane & laneMask].poll();
+    }
+
+    /**
+     * 轮询所有车道读取，所有车道都为空时等待
+     *
+     * @return 元素
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public T take() throws InterruptedException {
+        int counter = 0;
+        T result;
+        while (Objects.isNull(result = poll())) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            counter = waitStrategy.idle(counter);
+        }
+        return result;
+    }
+
+    /**
+     * 轮询所有车道尝试读取一次
+     *
+     * @return 元素，所有车道都为空时返回null
+     */
+    public T poll() {
+        final int start = nextLane;
+        for (int i = 0; i <= laneMask; i++) {
+            final int lane = (start + i) & laneMask;
+            final T result = lanes[lane].poll();
+            if (Objects.nonNull(result)) {
+                // 下次从下一个车道开始，避免饿死后面的车道
+                nextLane = lane + 1;
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 轮询所有车道批量读取当前已有的元素
+     *
+     * @param consumer 元素的消费者
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     */
+    public int drainTo(@NonNull Consumer<? super T> consumer, final int max) {
+        final int start = nextLane;
+        int count = 0;
+        for (int i = 0; i <= laneMask && count < max; i++) {
+            count += lanes[(start + i) & laneMask].drainTo(consumer, max - count);
+        }
+        nextLane = start + 1;
+        return count;
+    }
+
+    /**
+     * 批量读取指定车道当前已有的元素
+     *
+     * @param lane     车道
+     * @param consumer 元素的消费者
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     */
+    public int drainTo(final int lane, @NonNull Consumer<? super T> consumer, final int max) {
+        return lanes[lane & laneMask].drainTo(consumer, max);
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 所有车道的元素数量
+     */
+    public int size() {
+        int size = 0;
+        for (RingBuffer<T> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,413 @@
+package com.cc.wheel.ring;
+
+import com.cc.wheel.ring.wait.WaitStrategy;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 基于VarHandle的环形队列，算法和RingBuffer相同，不依赖sun.misc.Unsafe，在禁止访问theUnsafe的JDK上也能使用
+ * 只在算法需要的地方使用acquire/release，而不是每次访问都是全屏障
+ * <ul>
+ *     <li>元素的发布和读取：生产者release写入槽位，消费者acquire读取槽位</li>
+ *     <li>SPSC模式：下标由各自的线程plain读取，release发布，对方acquire读取</li>
+ *     <li>非阻塞操作占用下标：先acquire检查，再weakCompareAndSetPlain占用，失败重试即可</li>
+ * </ul>
+ * 没有Unsafe无法获得引用的大小，槽位间隔固定为16个引用，压缩指针时正好一个缓存行
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@SuppressWarnings("unused")
+public class VarHandleRingBuffer<T> {
+
+    /**
+     * 槽位间隔的偏移量
+     */
+    private static final int PADDING_SHIFT = 4;
+
+    private static final VarHandle BUFFER;
+    private static final VarHandle READ_INDEX;
+    private static final VarHandle WRITE_INDEX;
+
+    static {
+        try {
+            BUFFER = MethodHandles.arrayElementVarHandle(Object[].class);
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            READ_INDEX = lookup.findVarHandle(VarHandleRingBuffer.class, "readIndex", long.class);
+            WRITE_INDEX = lookup.findVarHandle(VarHandleRingBuffer.class, "writeIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int indexMask;
+
+    private final RingMode mode;
+
+    private final WaitStrategy waitStrategy;
+
+    private final Object[] buffer;
+
+    private long l1, l2, l3, l4, l5, l6, l7;
+
+    private long readIndex;
+
+    /**
+     * 消费者缓存的写下标，只在SPSC模式下由消费者线程读写
+     */
+    private long cachedWriteIndex;
+
+    private long p1, p2, p3, p4, p5, p6;
+
+    private long writeIndex;
+
+    /**
+     * 生产者缓存的读下标，只在SPSC模式下由生产者线程读写
+     */
+    private long cachedReadIndex;
+
+    private long l9, l10, l11, l12, l13, l14, l15;
+
+    public VarHandleRingBuffer(final int bufferSize) {
+        this(bufferSize, RingMode.MPMC, new YieldingWaitStrategy());
+    }
+
+    /**
+     * @param bufferSize   容量，必须是2的幂
+     * @param mode         生产者消费者模式，SPSC模式下只允许一个生产者线程和一个消费者线程
+     * @param waitStrategy 槽位忙时的等待策略
+     */
+    public VarHandleRingBuffer(final int bufferSize, @NonNull RingMode mode, @NonNull WaitStrategy waitStrategy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must not be less than 1");
+        }
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.indexMask = bufferSize - 1;
+        this.mode = mode;
+        this.waitStrategy = waitStrategy;
+        // 前后各填充一个槽位间隔
+        this.buffer = new Object[(bufferSize + 1) << PADDING_SHIFT];
+    }
+
+    /**
+     * @param index 下标，已经和indexMask做过与运算
+     * @return 数组中的位置，跳过最前面的填充
+     */
+    private static int slot(final long index) {
+        return (int) (index + 1) << PADDING_SHIFT;
+    }
+
+    private Object slotGetAcquire(final long index) {
+        return BUFFER.getAcquire(buffer, slot(index));
+    }
+
+    private Object slotGetAndSetNullAcquire(final long index) {
+        return BUFFER.getAndSetAcquire(buffer, slot(index), null);
+    }
+
+    private boolean slotCompareNullAndSetRelease(final long index, final Object value) {
+        return BUFFER.weakCompareAndSetRelease(buffer, slot(index), null, value);
+    }
+
+    public void put(@NonNull T value) throws InterruptedException {
+        if (mode == RingMode.SPSC) {
+            singlePut(value);
+            return;
+        }
+        // 只需要原子性，元素的发布由槽位的release保证
+        final long writeIndex = (long) WRITE_INDEX.getAndAdd(this, 1L) & indexMask;
+        int counter = 0;
+        // weak CAS可能伪失败，和槽位被占用一样重试
+        while (!slotCompareNullAndSetRelease(writeIndex, value)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            counter = waitStrategy.idle(counter);
+        }
+        waitStrategy.signalAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    public @NonNull T take() throws InterruptedException {
+        if (mode == RingMode.SPSC) {
+            return singleTake();
+        }
+        final long readIndex = (long) READ_INDEX.getAndAdd(this, 1L) & indexMask;
+        int counter = 0;
+        Object result;
+        while (Objects.isNull(result = slotGetAndSetNullAcquire(readIndex))) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            counter = waitStrategy.idle(counter);
+        }
+        waitStrategy.signalAll();
+        return (T) result;
+    }
+
+    /**
+     * 尝试写入，队列满时立即返回，不会占用下标
+     *
+     * @param value 元素
+     * @return 是否写入成功
+     */
+    public boolean offer(@NonNull T value) {
+        if (mode == RingMode.SPSC) {
+            return singleOffer(value);
+        }
+        for (; ; ) {
+            final long writeIndex = (long) WRITE_INDEX.getAcquire(this);
+            if (writeIndex - (long) READ_INDEX.getAcquire(this) > indexMask
+                    || Objects.nonNull(slotGetAcquire(writeIndex & indexMask))) {
+                return false;
+            }
+            // 占用下标不需要顺序保证，之后槽位的release写入不会被重排到它前面
+            if (WRITE_INDEX.weakCompareAndSetPlain(this, writeIndex, writeIndex + 1)) {
+                int counter = 0;
+                // 极少数情况下槽位会被更早占用下标的生产者抢先写入，只能等待消费者取走
+                while (!slotCompareNullAndSetRelease(writeIndex & indexMask, value)) {
+                    counter = idleUninterruptibly(counter);
+                }
+                waitStrategy.signalAll();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 尝试读取，队列空时立即返回，不会占用下标
+     *
+     * @return 元素，队列空时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (mode == RingMode.SPSC) {
+            return singlePoll();
+        }
+        for (; ; ) {
+            final long readIndex = (long) READ_INDEX.getAcquire(this);
+            if (readIndex >= (long) WRITE_INDEX.getAcquire(this) || Objects.isNull(slotGetAcquire(readIndex & indexMask))) {
+                return null;
+            }
+            if (READ_INDEX.weakCompareAndSetPlain(this, readIndex, readIndex + 1)) {
+                int counter = 0;
+                Object result;
+                // 极少数情况下槽位的元素会被更早占用下标的消费者抢先取走，只能等待下一个元素写入
+                while (Objects.isNull(result = slotGetAndSetNullAcquire(readIndex & indexMask))) {
+                    counter = idleUninterruptibly(counter);
+                }
+                waitStrategy.signalAll();
+                return (T) result;
+            }
+        }
+    }
+
+    /**
+     * 批量读取当前已有的元素，最多max个，不会等待新元素写入
+     * 已占用的下标必须读完，所以等待生产者写入时不响应中断，只保留中断标记
+     *
+     * @param consumer 元素的消费者
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(@NonNull Consumer<? super T> consumer, final int max) {
+        if (max <= 0) {
+            return 0;
+        }
+        if (mode == RingMode.SPSC) {
+            return singleDrainTo(consumer, max);
+        }
+        long start;
+        int count;
+        do {
+            start = (long) READ_INDEX.getAcquire(this);
+            final long available = (long) WRITE_INDEX.getAcquire(this) - start;
+            if (available <= 0) {
+                return 0;
+            }
+            count = (int) Math.min(available, max);
+        } while (!READ_INDEX.weakCompareAndSetPlain(this, start, start + count));
+
+        for (int i = 0; i < count; i++) {
+            final long readIndex = (start + i) & indexMask;
+            Object result;
+            int counter = 0;
+            while (Objects.isNull(result = slotGetAndSetNullAcquire(readIndex))) {
+                if (counter == 0) {
+                    waitStrategy.signalAll();
+                }
+                counter = idleUninterruptibly(counter);
+            }
+            consumer.accept((T) result);
+        }
+        waitStrategy.signalAll();
+        return count;
+    }
+
+    /**
+     * SPSC模式的写入，plain读取自己的写下标，release发布
+     */
+    private void singlePut(final T value) throws InterruptedException {
+        final long writeIndex = (long) WRITE_INDEX.get(this);
+        final long wrapPoint = writeIndex - indexMask - 1;
+        int counter = 0;
+        while (cachedReadIndex <= wrapPoint) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if ((cachedReadIndex = (long) READ_INDEX.getAcquire(this)) <= wrapPoint) {
+                counter = waitStrategy.idle(counter);
+            }
+        }
+        BUFFER.set(buffer, slot(writeIndex & indexMask), value);
+        WRITE_INDEX.setRelease(this, writeIndex + 1);
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * SPSC模式的读取，acquire读取写下标之后槽位可以plain读取
+     */
+    @SuppressWarnings("unchecked")
+    private T singleTake() throws InterruptedException {
+        final long readIndex = (long) READ_INDEX.get(this);
+        int counter = 0;
+        while (cachedWriteIndex <= readIndex) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if ((cachedWriteIndex = (long) WRITE_INDEX.getAcquire(this)) <= readIndex) {
+                counter = waitStrategy.idle(counter);
+            }
+        }
+        final int slot = slot(readIndex & indexMask);
+        final Object result = BUFFER.get(buffer, slot);
+        BUFFER.set(buffer, slot, null);
+        READ_INDEX.setRelease(this, readIndex + 1);
+        waitStrategy.signalAll();
+        return (T) result;
+    }
+
+    private boolean singleOffer(final T value) {
+        final long writeIndex = (long) WRITE_INDEX.get(this);
+        final long wrapPoint = writeIndex - indexMask - 1;
+        if (cachedReadIndex <= wrapPoint && (cachedReadIndex = (long) READ_INDEX.getAcquire(this)) <= wrapPoint) {
+            return false;
+        }
+        BUFFER.set(buffer, slot(writeIndex & indexMask), value);
+        WRITE_INDEX.setRelease(this, writeIndex + 1);
+        waitStrategy.signalAll();
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T singlePoll() {
+        final long readIndex = (long) READ_INDEX.get(this);
+        if (cachedWriteIndex <= readIndex && (cachedWriteIndex = (long) WRITE_INDEX.getAcquire(this)) <= readIndex) {
+            return null;
+        }
+        final int slot = slot(readIndex & indexMask);
+        final Object result = BUFFER.get(buffer, slot);
+        BUFFER.set(buffer, slot, null);
+        READ_INDEX.setRelease(this, readIndex + 1);
+        waitStrategy.signalAll();
+        return (T) result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int singleDrainTo(final Consumer<? super T> consumer, final int max) {
+        final long readIndex = (long) READ_INDEX.get(this);
+        long available = cachedWriteIndex - readIndex;
+        if (available <= 0 && (available = (cachedWriteIndex = (long) WRITE_INDEX.getAcquire(this)) - readIndex) <= 0) {
+            return 0;
+        }
+        final int count = (int) Math.min(available, max);
+        int done = 0;
+        try {
+            while (done < count) {
+                final int slot = slot((readIndex + done) & indexMask);
+                final Object result = BUFFER.get(buffer, slot);
+                BUFFER.set(buffer, slot, null);
+                done++;
+                consumer.accept((T) result);
+            }
+        } finally {
+            READ_INDEX.setRelease(this, readIndex + done);
+            waitStrategy.signalAll();
+        }
+        return count;
+    }
+
+    /**
+     * 下标已经占用，不能放弃，只能等待，等待期间的中断留给调用方处理
+     */
+    private int idleUninterruptibly(int counter) {
+        try {
+            return waitStrategy.idle(counter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Thread.yield();
+            return counter + 1;
+        }
+    }
+
+    /**
+     * 查看队首元素，不取出，并发修改时只是一个近似值
+     *
+     * @return 队首元素，队列空时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        final long readIndex = (long) READ_INDEX.getAcquire(this);
+        if (readIndex >= (long) WRITE_INDEX.getAcquire(this)) {
+            return null;
+        }
+        return (T) slotGetAcquire(readIndex & indexMask);
+    }
+
+    /**
+     * 队列中当前元素的快照，并发修改时是弱一致的
+     *
+     * @return 从队首到队尾的元素
+     */
+    public Object[] toArray() {
+        final long readIndex = (long) READ_INDEX.getAcquire(this);
+        final long size = Math.max(0, Math.min((long) WRITE_INDEX.getAcquire(this) - readIndex, capacity()));
+        final Object[] result = new Object[(int) size];
+        int count = 0;
+        for (long i = 0; i < size; i++) {
+            final Object value = slotGetAcquire((readIndex + i) & indexMask);
+            if (Objects.nonNull(value)) {
+                result[count++] = value;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * 并发修改时只是一个近似值
+     *
+     * @return 队列中的元素数量
+     */
+    public int size() {
+        final long readIndex = (long) READ_INDEX.getVolatile(this);
+        final long writeIndex = (long) WRITE_INDEX.getVolatile(this);
+        return (int) Math.max(0, Math.min(writeIndex - readIndex, capacity()));
+    }
+
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.cc.wheel.ring.event;
+
+/**
+ * 屏障被提醒时抛出，用于停止等待中的消费者
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class AlertException extends Exception {
+
+    public AlertException() {
+        super("Sequence barrier is alerted", null, false, false);
+    }
+}
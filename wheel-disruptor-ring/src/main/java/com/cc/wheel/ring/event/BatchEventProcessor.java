@@ -0,0 +1,103 @@
+package com.cc.wheel.ring.event;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 事件处理器，持有自己的序号，通过屏障批量读取可以处理的事件，处理完一批之后推进序号
+ * 状态分为IDLE、HALTED和RUNNING，线程还没有进入run时调用halt，之后的run会直接退出
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Slf4j
+public class BatchEventProcessor<E> implements Runnable {
+
+    private final EventRingBuffer<E> ringBuffer;
+
+    private final SequenceBarrier barrier;
+
+    private final EventHandler<? super E> handler;
+
+    private final Sequence sequence = new Sequence();
+
+    private static final int IDLE = 0;
+    private static final int HALTED = 1;
+    private static final int RUNNING = 2;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+
+    public BatchEventProcessor(@NonNull EventRingBuffer<E> ringBuffer, @NonNull SequenceBarrier barrier,
+                               @NonNull EventHandler<? super E> handler) {
+        this.ringBuffer = ringBuffer;
+        this.barrier = barrier;
+        this.handler = handler;
+    }
+
+    /**
+     * @return 已经处理完的序号，下游的屏障和生产者依赖它
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    public boolean isRunning() {
+        return running.get() == RUNNING;
+    }
+
+    /**
+     * 停止处理，当前批次处理完之后退出
+     */
+    public void halt() {
+        running.set(HALTED);
+        barrier.alert();
+    }
+
+    @Override
+    public void run() {
+        if (!running.compareAndSet(IDLE, RUNNING)) {
+            if (running.get() == RUNNING) {
+                throw new IllegalStateException("Processor is already running");
+            }
+            // 启动之前已经被停止
+            running.set(IDLE);
+            return;
+        }
+        barrier.clearAlert();
+        long nextSequence = sequence.get() + 1;
+        try {
+            // clearAlert可能清除了刚刚调用的halt发出的提醒，再检查一次状态
+            while (running.get() == RUNNING) {
+                try {
+                    final long availableSequence = barrier.waitFor(nextSequence);
+                    while (nextSequence <= availableSequence) {
+                        handler.onEvent(ringBuffer.get(nextSequence), nextSequence, nextSequence == availableSequence);
+                        nextSequence++;
+                    }
+                    sequence.set(availableSequence);
+                    barrier.signalAll();
+                } catch (AlertException e) {
+                    if (running.get() != RUNNING) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Throwable t) {
+                    log.error("Error handle event {}", nextSequence, t);
+                    // 跳过处理失败的事件，避免整条流水线卡住
+                    sequence.set(nextSequence);
+                    barrier.signalAll();
+                    nextSequence++;
+                }
+            }
+        } finally {
+            // 同一阶段的处理者共用屏障，clearAlert可能清除了发给其他处理者的提醒，停止时重新提醒
+            if (running.getAndSet(IDLE) == HALTED) {
+                barrier.alert();
+            }
+        }
+    }
+}
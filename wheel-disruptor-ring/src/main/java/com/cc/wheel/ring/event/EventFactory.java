@@ -0,0 +1,18 @@
+package com.cc.wheel.ring.event;
+
+/**
+ * 事件工厂，构造环形队列时预先创建所有的事件对象
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface EventFactory<E> {
+
+    /**
+     * 创建一个事件对象
+     *
+     * @return 事件对象
+     */
+    E newInstance();
+}
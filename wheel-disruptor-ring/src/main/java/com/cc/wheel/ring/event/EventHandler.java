@@ -0,0 +1,21 @@
+package com.cc.wheel.ring.event;
+
+/**
+ * 事件处理者，由BatchEventProcessor在自己的线程中调用
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * 原地处理一个事件，返回之后事件可能被下游处理或者被生产者覆盖，不要持有事件的引用
+     *
+     * @param event      事件
+     * @param sequence   事件的序号
+     * @param endOfBatch 是否是本批次的最后一个事件
+     * @throws Exception 处理异常，会被记录并跳过该事件
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,39 @@
+package com.cc.wheel.ring.event;
+
+import lombok.NonNull;
+
+/**
+ * 流水线中的一个阶段，用来声明依赖于它的下一个阶段
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class EventHandlerGroup<E> {
+
+    private final EventPipeline<E> pipeline;
+
+    private final Sequence[] sequences;
+
+    EventHandlerGroup(EventPipeline<E> pipeline, Sequence[] sequences) {
+        this.pipeline = pipeline;
+        this.sequences = sequences;
+    }
+
+    /**
+     * 添加下一个阶段，这些处理者只处理本阶段所有处理者都已经处理完的事件
+     *
+     * @param handlers 处理者，同一阶段的处理者并行处理每一个事件
+     * @return 下一个阶段
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<E> then(@NonNull EventHandler<? super E>... handlers) {
+        return pipeline.createStage(sequences, handlers);
+    }
+
+    /**
+     * @return 本阶段所有处理者的序号
+     */
+    public Sequence[] getSequences() {
+        return sequences.clone();
+    }
+}
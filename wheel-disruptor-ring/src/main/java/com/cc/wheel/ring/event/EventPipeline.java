@@ -0,0 +1,118 @@
+package com.cc.wheel.ring.event;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 多阶段的事件处理流水线，所有阶段原地处理同一个环形队列中的事件，阶段之间没有额外的队列和复制
+ * <pre>
+ * pipeline.handleEventsWith(decode).then(enrich).then(persist);
+ * pipeline.start();
+ * </pre>
+ * 每个处理者有自己的序号，下游的屏障依赖上游所有处理者的序号，生产者只依赖最后一个阶段的序号
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class EventPipeline<E> {
+
+    private final EventRingBuffer<E> ringBuffer;
+
+    private final ThreadFactory threadFactory;
+
+    private final List<BatchEventProcessor<E>> processors = new ArrayList<>();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private boolean started = false;
+
+    public EventPipeline(@NonNull EventRingBuffer<E> ringBuffer, @NonNull ThreadFactory threadFactory) {
+        this.ringBuffer = ringBuffer;
+        this.threadFactory = threadFactory;
+    }
+
+    public EventRingBuffer<E> getRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * 添加第一个阶段，这些处理者直接依赖生产者
+     *
+     * @param handlers 处理者，同一阶段的处理者并行处理每一个事件
+     * @return 第一个阶段
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<E> handleEventsWith(@NonNull EventHandler<? super E>... handlers) {
+        return createStage(new Sequence[0], handlers);
+    }
+
+    synchronized EventHandlerGroup<E> createStage(Sequence[] dependentSequences, EventHandler<? super E>[] handlers) {
+        if (started) {
+            throw new IllegalStateException("Pipeline is already started");
+        }
+        if (handlers.length == 0) {
+            throw new IllegalArgumentException("handlers must not be empty");
+        }
+        final SequenceBarrier barrier = ringBuffer.newBarrier(dependentSequences);
+        final Sequence[] sequences = new Sequence[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            final BatchEventProcessor<E> processor = new BatchEventProcessor<>(ringBuffer, barrier, handlers[i]);
+            processors.add(processor);
+            sequences[i] = processor.getSequence();
+        }
+        ringBuffer.addGatingSequences(sequences);
+        // 上游已经被下游挡住了，生产者只需要关心最后的阶段
+        for (Sequence dependent : dependentSequences) {
+            ringBuffer.removeGatingSequence(dependent);
+        }
+        return new EventHandlerGroup<>(this, sequences);
+    }
+
+    /**
+     * 为每个处理者启动一个线程
+     */
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline is already started");
+        }
+        started = true;
+        for (BatchEventProcessor<E> processor : processors) {
+            final Thread thread = threadFactory.newThread(processor);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * 等待所有已经发布的事件被最后的阶段处理完，然后停止所有的处理者
+     *
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public synchronized void shutdown() throws InterruptedException {
+        final long cursor = ringBuffer.getCursor();
+        // 线程可能还没有进入run，只要线程还活着就等它处理完
+        for (int i = 0; i < threads.size(); i++) {
+            while (threads.get(i).isAlive() && processors.get(i).getSequence().get() < cursor) {
+                Thread.sleep(1);
+            }
+        }
+        halt();
+    }
+
+    /**
+     * 立即停止所有的处理者，并等待它们的线程退出
+     *
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public synchronized void halt() throws InterruptedException {
+        for (BatchEventProcessor<E> processor : processors) {
+            processor.halt();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
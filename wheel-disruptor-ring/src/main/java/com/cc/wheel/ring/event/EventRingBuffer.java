@@ -0,0 +1,365 @@
+package com.cc.wheel.ring.event;
+
+import com.cc.wheel.ring.RingMode;
+import com.cc.wheel.ring.utils.UnsafeUtils;
+import com.cc.wheel.ring.wait.WaitStrategy;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
+import lombok.NonNull;
+import sun.misc.Unsafe;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 预分配事件的环形队列
+ * 构造时通过EventFactory创建好所有的事件对象，生产者占用序号后原地修改事件再发布，消费者原地读取事件后推进自己的序号，
+ * 稳定运行时没有任何对象分配
+ * <pre>
+ * long sequence = ring.claim();
+ * try {
+ *     ring.get(sequence).setValue(value);
+ * } finally {
+ *     ring.publish(sequence);
+ * }
+ * </pre>
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@SuppressWarnings("unused")
+public class EventRingBuffer<E> {
+
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
+
+    private static final int AVAILABLE_BASE_OFFSET;
+    private static final int AVAILABLE_ELEMENT_SHIFT;
+
+    /**
+     * 事件数组两端的填充数量，避免和相邻的对象伪共享
+     */
+    private static final int BUFFER_PAD;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<EventRingBuffer, Sequence[]> GATING_SEQUENCES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(EventRingBuffer.class, Sequence[].class, "gatingSequences");
+
+    static {
+        AVAILABLE_BASE_OFFSET = UNSAFE.arrayBaseOffset(int[].class);
+        AVAILABLE_ELEMENT_SHIFT = 31 - Integer.numberOfLeadingZeros(UNSAFE.arrayIndexScale(int[].class));
+        BUFFER_PAD = 128 / UNSAFE.arrayIndexScale(Object[].class);
+    }
+
+    private final int bufferSize;
+
+    private final int indexMask;
+
+    private final int indexShift;
+
+    private final RingMode mode;
+
+    private final WaitStrategy waitStrategy;
+
+    private final Object[] entries;
+
+    /**
+     * 生产者的游标，单生产者时是已经发布的序号，多生产者时是已经占用的序号
+     */
+    private final Sequence cursor = new Sequence();
+
+    /**
+     * 消费者的序号，生产者不能超过其中最慢的一个
+     */
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    /**
+     * 多生产者时，缓存的最慢消费者的序号
+     */
+    private final Sequence gatingSequenceCache = new Sequence();
+
+    /**
+     * 多生产者时，每个槽位已经发布的圈数
+     */
+    private final int[] availableBuffer;
+
+    private long l1, l2, l3, l4, l5, l6, l7;
+
+    /**
+     * 单生产者时，已经占用的序号，只由生产者线程读写
+     */
+    private long nextValue = Sequence.INITIAL_VALUE;
+
+    /**
+     * 单生产者时，缓存的最慢消费者的序号，只由生产者线程读写
+     */
+    private long cachedValue = Sequence.INITIAL_VALUE;
+
+    private long l9, l10, l11, l12, l13, l14, l15;
+
+    public EventRingBuffer(@NonNull EventFactory<E> eventFactory, final int bufferSize) {
+        this(eventFactory, bufferSize, RingMode.MPMC, new YieldingWaitStrategy());
+    }
+
+    /**
+     * @param eventFactory 事件工厂
+     * @param bufferSize   容量，必须是2的幂
+     * @param mode         SPSC时只允许一个线程调用claim和publish
+     * @param waitStrategy 消费者等待事件发布时的等待策略
+     */
+    public EventRingBuffer(@NonNull EventFactory<E> eventFactory, final int bufferSize,
+                           @NonNull RingMode mode, @NonNull WaitStrategy waitStrategy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must not be less than 1");
+        }
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.mode = mode;
+        this.waitStrategy = waitStrategy;
+        this.entries = new Object[bufferSize + 2 * BUFFER_PAD];
+        for (int i = 0; i < bufferSize; i++) {
+            this.entries[BUFFER_PAD + i] = eventFactory.newInstance();
+        }
+        if (mode == RingMode.SPSC) {
+            this.availableBuffer = null;
+        } else {
+            this.availableBuffer = new int[bufferSize];
+            Arrays.fill(this.availableBuffer, -1);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return 生产者的游标
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * 获取序号对应的事件，生产者在claim和publish之间修改它，消费者在屏障允许之后读取它
+     *
+     * @param sequence 序号
+     * @return 事件
+     */
+    @SuppressWarnings("unchecked")
+    public E get(final long sequence) {
+        return (E) entries[BUFFER_PAD + (int) (sequence & indexMask)];
+    }
+
+    /**
+     * 添加消费者的序号，生产者不会覆盖这些序号还没有处理的事件
+     *
+     * @param sequences 消费者的序号
+     */
+    public void addGatingSequences(@NonNull Sequence... sequences) {
+        Sequence[] current;
+        Sequence[] update;
+        do {
+            current = gatingSequences;
+            update = Arrays.copyOf(current, current.length + sequences.length);
+            // 新的消费者从当前游标开始消费，避免生产者认为它落后了一整圈
+            final long cursorSequence = cursor.get();
+            for (int i = 0; i < sequences.length; i++) {
+                sequences[i].set(cursorSequence);
+                update[current.length + i] = sequences[i];
+            }
+        } while (!GATING_SEQUENCES_UPDATER.compareAndSet(this, current, update));
+    }
+
+    /**
+     * 移除消费者的序号
+     *
+     * @param sequence 消费者的序号
+     * @return 是否移除成功
+     */
+    public boolean removeGatingSequence(@NonNull Sequence sequence) {
+        Sequence[] current;
+        Sequence[] update;
+        do {
+            current = gatingSequences;
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == sequence) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return false;
+            }
+            update = new Sequence[current.length - 1];
+            System.arraycopy(current, 0, update, 0, index);
+            System.arraycopy(current, index + 1, update, index, current.length - index - 1);
+        } while (!GATING_SEQUENCES_UPDATER.compareAndSet(this, current, update));
+        return true;
+    }
+
+    /**
+     * 创建一个消费者屏障
+     *
+     * @param dependentSequences 上游消费者的序号，为空时只依赖生产者
+     * @return 屏障
+     */
+    public SequenceBarrier newBarrier(@NonNull Sequence... dependentSequences) {
+        return new SequenceBarrier(this, waitStrategy, dependentSequences.clone());
+    }
+
+    /**
+     * 占用下一个序号，队列满时等待最慢的消费者
+     *
+     * @return 序号
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public long claim() throws InterruptedException {
+        return claim(1);
+    }
+
+    /**
+     * 占用连续的n个序号，队列满时等待最慢的消费者
+     *
+     * @param n 数量
+     * @return 占用的最大序号，占用的范围是 [返回值 - n + 1, 返回值]
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public long claim(final int n) throws InterruptedException {
+        if (n < 1 || n > bufferSize) {
+            throw new IllegalArgumentException("n must be > 0 and <= bufferSize");
+        }
+        return mode == RingMode.SPSC ? singleClaim(n) : multiClaim(n);
+    }
+
+    /**
+     * 发布序号，消费者此后可以读取对应的事件
+     *
+     * @param sequence 序号
+     */
+    public void publish(final long sequence) {
+        if (mode == RingMode.SPSC) {
+            cursor.set(sequence);
+        } else {
+            setAvailable(sequence);
+        }
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * 发布一段连续的序号
+     *
+     * @param lo 最小序号
+     * @param hi 最大序号
+     */
+    public void publish(final long lo, final long hi) {
+        if (mode == RingMode.SPSC) {
+            cursor.set(hi);
+        } else {
+            for (long sequence = lo; sequence <= hi; sequence++) {
+                setAvailable(sequence);
+            }
+        }
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * 序号是否已经发布
+     *
+     * @param sequence 序号
+     * @return 是否已经发布
+     */
+    public boolean isAvailable(final long sequence) {
+        if (mode == RingMode.SPSC) {
+            return sequence <= cursor.get();
+        }
+        final long offset = availableOffset((int) (sequence & indexMask));
+        return UNSAFE.getIntVolatile(availableBuffer, offset) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * 获取 [lo, hi] 中从lo开始连续发布的最大序号
+     *
+     * @param lo 最小序号
+     * @param hi 最大序号，不超过游标
+     * @return 连续发布的最大序号，lo没有发布时返回 lo - 1
+     */
+    public long getHighestPublishedSequence(final long lo, final long hi) {
+        if (mode == RingMode.SPSC) {
+            return hi;
+        }
+        for (long sequence = lo; sequence <= hi; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * 单生产者占用序号，只有缓存的消费者序号显示队列已满时才去读取消费者的序号
+     */
+    private long singleClaim(final int n) throws InterruptedException {
+        final long nextValue = this.nextValue;
+        final long nextSequence = nextValue + n;
+        final long wrapPoint = nextSequence - bufferSize;
+        final long cachedGatingSequence = this.cachedValue;
+        if (wrapPoint > cachedGatingSequence || cachedGatingSequence > nextValue) {
+            // StoreLoad，让消费者看到最新的游标，防止双方互相等待
+            cursor.setVolatile(nextValue);
+            long minSequence;
+            while (wrapPoint > (minSequence = Sequence.minimum(gatingSequences, nextValue))) {
+                waitForConsumer();
+            }
+            this.cachedValue = minSequence;
+        }
+        this.nextValue = nextSequence;
+        return nextSequence;
+    }
+
+    /**
+     * 多生产者占用序号，通过CAS推进游标
+     */
+    private long multiClaim(final int n) throws InterruptedException {
+        long current;
+        long next;
+        for (; ; ) {
+            current = cursor.get();
+            next = current + n;
+            final long wrapPoint = next - bufferSize;
+            final long cachedGatingSequence = gatingSequenceCache.get();
+            if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current) {
+                final long gatingSequence = Sequence.minimum(gatingSequences, current);
+                if (wrapPoint > gatingSequence) {
+                    waitForConsumer();
+                    continue;
+                }
+                gatingSequenceCache.set(gatingSequence);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 生产者追上了最慢的消费者，消费者推进序号时不会通知生产者，所以这里只做短暂的park
+     */
+    private void waitForConsumer() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        LockSupport.parkNanos(1L);
+    }
+
+    private void setAvailable(final long sequence) {
+        final long offset = availableOffset((int) (sequence & indexMask));
+        UNSAFE.putOrderedInt(availableBuffer, offset, (int) (sequence >>> indexShift));
+    }
+
+    private static long availableOffset(final int index) {
+        return AVAILABLE_BASE_OFFSET + ((long) index << AVAILABLE_ELEMENT_SHIFT);
+    }
+}
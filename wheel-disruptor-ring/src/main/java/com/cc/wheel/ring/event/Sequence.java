@@ -0,0 +1,83 @@
+package com.cc.wheel.ring.event;
+
+import com.cc.wheel.ring.utils.UnsafeUtils;
+import sun.misc.Unsafe;
+
+/**
+ * 带有伪共享填充的序号，生产者的游标和每个消费者的进度都是一个序号
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@SuppressWarnings("unused")
+public class Sequence {
+
+    public static final long INITIAL_VALUE = -1L;
+
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
+
+    private static final long VALUE_OFFSET;
+
+    static {
+        try {
+            VALUE_OFFSET = UNSAFE.objectFieldOffset(Sequence.class.getDeclaredField("value"));
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long l1, l2, l3, l4, l5, l6, l7;
+
+    private volatile long value;
+
+    private long l9, l10, l11, l12, l13, l14, l15;
+
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    public Sequence(final long initialValue) {
+        UNSAFE.putOrderedLong(this, VALUE_OFFSET, initialValue);
+    }
+
+    public long get() {
+        return value;
+    }
+
+    /**
+     * lazySet，保证之前的写入先于序号的发布，但不保证之后的读取不会重排到它之前
+     */
+    public void set(final long value) {
+        UNSAFE.putOrderedLong(this, VALUE_OFFSET, value);
+    }
+
+    /**
+     * volatile写，带有StoreLoad屏障
+     */
+    public void setVolatile(final long value) {
+        this.value = value;
+    }
+
+    public boolean compareAndSet(final long expectedValue, final long newValue) {
+        return UNSAFE.compareAndSwapLong(this, VALUE_OFFSET, expectedValue, newValue);
+    }
+
+    /**
+     * 获取一组序号中的最小值
+     *
+     * @param sequences 序号
+     * @param minimum   序号为空时的返回值，也是结果的上限
+     * @return 最小值
+     */
+    public static long minimum(final Sequence[] sequences, long minimum) {
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.cc.wheel.ring.event;
+
+import com.cc.wheel.ring.wait.WaitStrategy;
+
+/**
+ * 消费者的屏障，只允许消费者读取生产者已经发布，并且所有上游消费者都已经处理完的序号
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class SequenceBarrier {
+
+    private final EventRingBuffer<?> ringBuffer;
+
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * 上游消费者的序号，为空时只依赖生产者
+     */
+    private final Sequence[] dependentSequences;
+
+    private volatile boolean alerted = false;
+
+    SequenceBarrier(EventRingBuffer<?> ringBuffer, WaitStrategy waitStrategy, Sequence[] dependentSequences) {
+        this.ringBuffer = ringBuffer;
+        this.waitStrategy = waitStrategy;
+        this.dependentSequences = dependentSequences;
+    }
+
+    /**
+     * 等待序号可以被读取
+     *
+     * @param sequence 期望读取的序号
+     * @return 可以读取的最大序号，不小于sequence
+     * @throws AlertException       while the barrier is alerted
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public long waitFor(final long sequence) throws AlertException, InterruptedException {
+        int counter = 0;
+        for (; ; ) {
+            if (alerted) {
+                throw new AlertException();
+            }
+            final long cursor = ringBuffer.getCursor();
+            // 上游都处理完的序号一定已经发布了，不会超过游标
+            final long available = Sequence.minimum(dependentSequences, cursor);
+            if (available >= sequence) {
+                // 多生产者时游标是已经占用的序号，需要找出其中连续发布的部分
+                final long highest = ringBuffer.getHighestPublishedSequence(sequence, available);
+                if (highest >= sequence) {
+                    return highest;
+                }
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            counter = waitStrategy.idle(counter);
+        }
+    }
+
+    /**
+     * 消费者推进序号之后调用，唤醒阻塞等待中的下游消费者
+     */
+    public void signalAll() {
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * 提醒等待中的消费者停止等待
+     */
+    public void alert() {
+        alerted = true;
+        waitStrategy.signalAll();
+    }
+
+    public void clearAlert() {
+        alerted = false;
+    }
+
+    public boolean isAlerted() {
+        return alerted;
+    }
+}
@@ -0,0 +1,249 @@
+package com.cc.wheel.ring.executor;
+
+import com.cc.wheel.ring.IntRingBuffer;
+import com.cc.wheel.ring.RingBuffer;
+import com.cc.wheel.ring.RingMode;
+import com.cc.wheel.ring.wait.YieldingWaitStrategy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 以RingBuffer为任务队列的线程池，固定数量的工作线程，类似Disruptor的WorkerPool
+ * <ul>
+ *     <li>工作线程每次批量取出最多batchSize个任务依次执行</li>
+ *     <li>没有任务时先自旋spinTries次，再把自己登记为空闲线程后park，提交任务时unpark一个空闲线程</li>
+ *     <li>队列满时拒绝任务，抛出RejectedExecutionException</li>
+ * </ul>
+ * 批量取出的任务只由当前线程执行，任务耗时较长时应该调小batchSize，避免其他线程空闲而任务在排队
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Slf4j
+public class RingBufferExecutor extends AbstractExecutorService {
+
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+
+    private final RingBuffer<Runnable> ringBuffer;
+
+    private final Worker[] workers;
+
+    /**
+     * 空闲线程的编号，容量不小于线程数，每个线程最多登记一次，所以不会满
+     */
+    private final IntRingBuffer idleWorkers;
+
+    private final int batchSize;
+
+    private final int spinTries;
+
+    /**
+     * 正在提交的任务数，关闭后工作线程要等它们都放入队列或者被拒绝才能退出
+     */
+    private final AtomicInteger submitting = new AtomicInteger(0);
+
+    private final CountDownLatch terminated;
+
+    private volatile int state = RUNNING;
+
+    public RingBufferExecutor(final int threads, final int bufferSize) {
+        this(threads, bufferSize, 8, 1000, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * @param threads       工作线程数
+     * @param bufferSize    任务队列的容量，必须是2的幂
+     * @param batchSize     工作线程每次最多取出的任务数
+     * @param spinTries     没有任务时park之前的自旋次数
+     * @param threadFactory 工作线程的工厂
+     */
+    public RingBufferExecutor(final int threads, final int bufferSize, final int batchSize, final int spinTries,
+                              @NonNull ThreadFactory threadFactory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must not be less than 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must not be less than 1");
+        }
+        if (spinTries < 0) {
+            throw new IllegalArgumentException("spinTries must not be less than 0");
+        }
+        this.ringBuffer = new RingBuffer<>(bufferSize, RingMode.MPMC, new YieldingWaitStrategy());
+        this.idleWorkers = new IntRingBuffer(Integer.highestOneBit(threads - 1 | 1) << 1);
+        this.batchSize = batchSize;
+        this.spinTries = spinTries;
+        this.terminated = new CountDownLatch(threads);
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i);
+            workers[i].thread = threadFactory.newThread(workers[i]);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        submitting.incrementAndGet();
+        try {
+            if (state != RUNNING) {
+                throw new RejectedExecutionException("Executor is shutdown");
+            }
+            if (!ringBuffer.offer(command)) {
+                throw new RejectedExecutionException("Task queue is full");
+            }
+        } finally {
+            // 关闭后工作线程可能因为还有提交者而park，最后一个提交者负责唤醒它们，被拒绝时也一样
+            if (submitting.decrementAndGet() == 0 && state != RUNNING) {
+                wakeUpAll();
+            }
+        }
+        wakeUpOne();
+    }
+
+    /**
+     * 唤醒一个空闲的工作线程，任务已经放入队列之后调用
+     * 工作线程先登记再检查队列，提交者先放入队列再查看登记，两者至少有一个能看到对方
+     */
+    private void wakeUpOne() {
+        final int id = idleWorkers.poll();
+        if (id != IntRingBuffer.EMPTY) {
+            final Worker worker = workers[id];
+            worker.registered = false;
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    private void wakeUpAll() {
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (state < SHUTDOWN) {
+            state = SHUTDOWN;
+        }
+        wakeUpAll();
+    }
+
+    /**
+     * 工作线程已经批量取出但还没有开始执行的任务不再执行，也不在返回的列表中
+     */
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        state = STOP;
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        final List<Runnable> remaining = new ArrayList<>();
+        while (ringBuffer.drainTo(remaining::add, Integer.MAX_VALUE) > 0) {
+            // 取出还没有执行的任务
+        }
+        return remaining;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return state >= SHUTDOWN;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    /**
+     * @return 队列中等待执行的任务数，并发修改时只是一个近似值
+     */
+    public int getQueueSize() {
+        return ringBuffer.size();
+    }
+
+    private final class Worker implements Runnable {
+
+        private final int id;
+
+        private final Consumer<Runnable> runner = this::runTask;
+
+        private Thread thread;
+
+        /**
+         * 是否已经登记为空闲线程，提交者取出编号时清除
+         */
+        private volatile boolean registered = false;
+
+        private Worker(final int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            int spins = 0;
+            try {
+                while (state < STOP) {
+                    if (ringBuffer.drainTo(runner, batchSize) > 0) {
+                        spins = 0;
+                        continue;
+                    }
+                    if (state == SHUTDOWN && submitting.get() == 0 && ringBuffer.size() == 0) {
+                        break;
+                    }
+                    if (spins < spinTries) {
+                        spins++;
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (!registered) {
+                        // 登记之后再检查一次队列才能park
+                        registered = true;
+                        idleWorkers.offer(id);
+                        continue;
+                    }
+                    LockSupport.park(this);
+                    // shutdownNow的中断只用于唤醒
+                    Thread.interrupted();
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+
+        private void runTask(final Runnable task) {
+            if (state >= STOP) {
+                // 停止之后不再执行这一批剩下的任务
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                log.error("Task throws exception", e);
+            }
+            // 任务中残留的中断不影响下一个任务，除非线程池已经停止
+            if (state < STOP) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.cc.wheel.ring.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁、记录时不分配内存的对数-线性直方图，和HdrHistogram类似
+ * 小于64的值每个值一个桶，之后每个2的幂区间再线性分成32个桶，相对误差不超过1/32
+ * <pre>
+ * m = max(0, 最高位 - 5)
+ * index = (m << 5) + (value >>> m)
+ * </pre>
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Long.MAX_VALUE的下标加一
+     */
+    private static final int BUCKET_COUNT = index(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong maxValue = new AtomicLong();
+
+    static int index(final long value) {
+        final int magnitude = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (magnitude << SUB_BUCKET_BITS) + (int) (value >>> magnitude);
+    }
+
+    /**
+     * @param index 桶的下标
+     * @return 桶中的最大值
+     */
+    static long highestValue(final int index) {
+        if (index < SUB_BUCKET_COUNT << 1) {
+            return index;
+        }
+        final int magnitude = (index >>> SUB_BUCKET_BITS) - 1;
+        final long subBucket = index - ((long) magnitude << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+
+    /**
+     * 记录一个值，负数按0记录
+     *
+     * @param value 值
+     */
+    public void record(final long value) {
+        final long v = Math.max(0, value);
+        counts.incrementAndGet(index(v));
+        totalCount.incrementAndGet();
+        maxValue.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public long max() {
+        return maxValue.get();
+    }
+
+    /**
+     * 按照分位数查找对应的值，返回所在桶的最大值，不超过记录过的最大值，并发记录时只是一个近似值
+     *
+     * @param percentile 分位数，0到100
+     * @return 对应的值，没有记录时返回0
+     */
+    public long valueAtPercentile(final double percentile) {
+        final long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(highestValue(i), max());
+            }
+        }
+        return max();
+    }
+}
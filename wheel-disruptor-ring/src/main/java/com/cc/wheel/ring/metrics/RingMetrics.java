@@ -0,0 +1,67 @@
+package com.cc.wheel.ring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 环形队列的统计，元素在队列中停留的时间和生产者消费者的等待情况
+ * <ul>
+ *     <li>等待次数：生产者/消费者调用等待策略的次数</li>
+ *     <li>满/空次数：非阻塞操作因为队列满/空失败的次数，以及阻塞操作开始等待的次数</li>
+ * </ul>
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class RingMetrics {
+
+    private final LatencyHistogram residency = new LatencyHistogram();
+
+    private final LongAdder producerSpins = new LongAdder();
+
+    private final LongAdder consumerSpins = new LongAdder();
+
+    private final LongAdder fullCount = new LongAdder();
+
+    private final LongAdder emptyCount = new LongAdder();
+
+    /**
+     * @param nanos 元素在队列中停留的纳秒数
+     */
+    public void recordResidency(final long nanos) {
+        residency.record(nanos);
+    }
+
+    public void producerSpin() {
+        producerSpins.increment();
+    }
+
+    public void consumerSpin() {
+        consumerSpins.increment();
+    }
+
+    public void full() {
+        fullCount.increment();
+    }
+
+    public void empty() {
+        emptyCount.increment();
+    }
+
+    /**
+     * 并发记录时各项数据不是同一时刻的
+     *
+     * @return 当前的统计快照
+     */
+    public RingMetricsSnapshot snapshot() {
+        return new RingMetricsSnapshot(
+                residency.count(),
+                residency.valueAtPercentile(50),
+                residency.valueAtPercentile(99),
+                residency.valueAtPercentile(99.9),
+                residency.max(),
+                producerSpins.sum(),
+                consumerSpins.sum(),
+                fullCount.sum(),
+                emptyCount.sum());
+    }
+}
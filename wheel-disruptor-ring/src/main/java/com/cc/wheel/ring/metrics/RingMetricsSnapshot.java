@@ -0,0 +1,35 @@
+package com.cc.wheel.ring.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 环形队列统计的快照，停留时间的单位是纳秒
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RingMetricsSnapshot {
+
+    private final long count;
+
+    private final long p50;
+
+    private final long p99;
+
+    private final long p999;
+
+    private final long max;
+
+    private final long producerSpins;
+
+    private final long consumerSpins;
+
+    private final long fullCount;
+
+    private final long emptyCount;
+}
@@ -0,0 +1,64 @@
+package com.cc.wheel.ring.utils;
+
+import sun.misc.Unsafe;
+
+/**
+ * 带伪共享填充的数组槽位寻址，每个槽位独占一个缓存行，数组最前面额外填充一个缓存行
+ * <pre>
+ * offset(index) = baseOffset(arrayClass) + (index << elementShift << paddingShift)
+ * </pre>
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class PaddedSlots {
+
+    public static final int CACHE_LINE_SIZE = 64;
+
+    private static final Unsafe UNSAFE = UnsafeUtils.UNSAFE;
+
+    private PaddedSlots() {
+    }
+
+    /**
+     * @param arrayClass 数组类型
+     * @return 每个element的偏移量
+     */
+    public static int elementShift(Class<?> arrayClass) {
+        return 31 - Integer.numberOfLeadingZeros(UNSAFE.arrayIndexScale(arrayClass));
+    }
+
+    /**
+     * @param arrayClass 数组类型
+     * @return 伪共享填充的偏移量，一个缓存行能放下的element数量的对数
+     */
+    public static int paddingShift(Class<?> arrayClass) {
+        return 31 - Integer.numberOfLeadingZeros(CACHE_LINE_SIZE / UNSAFE.arrayIndexScale(arrayClass));
+    }
+
+    /**
+     * @param arrayClass 数组类型
+     * @return 数组的基地址 包括数组前面的填充
+     */
+    public static int baseOffset(Class<?> arrayClass) {
+        return baseOffset(arrayClass, paddingShift(arrayClass));
+    }
+
+    /**
+     * @param arrayClass   数组类型
+     * @param paddingShift 槽位间隔的偏移量，0表示紧凑排列
+     * @return 数组的基地址 包括数组前面的填充
+     */
+    public static int baseOffset(Class<?> arrayClass, int paddingShift) {
+        return UNSAFE.arrayBaseOffset(arrayClass) + (1 << elementShift(arrayClass) << paddingShift);
+    }
+
+    /**
+     * @param bufferSize   槽位数量
+     * @param paddingShift 伪共享填充的偏移量
+     * @return 包括了element之间的填充的数组长度
+     */
+    public static int length(int bufferSize, int paddingShift) {
+        return (bufferSize + 1) << paddingShift;
+    }
+}
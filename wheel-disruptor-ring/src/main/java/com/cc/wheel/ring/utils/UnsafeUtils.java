@@ -0,0 +1,32 @@
+package com.cc.wheel.ring.utils;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+public class UnsafeUtils {
+
+    public static final Unsafe UNSAFE;
+
+    static {
+        try {
+            final PrivilegedExceptionAction<Unsafe> action = () -> {
+                Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return (Unsafe) theUnsafe.get(null);
+            };
+            UNSAFE = AccessController.doPrivileged(action);
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to load unsafe", e);
+        }
+    }
+
+    private UnsafeUtils() {
+    }
+}
@@ -0,0 +1,65 @@
+package com.cc.wheel.ring.wait;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 渐进退避：先自旋，再让出CPU，最后用parkNanos睡眠，睡眠时间指数增长直到上限
+ * 空闲时几乎不占用CPU，唤醒延迟取决于当前的睡眠时间
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class BackoffWaitStrategy implements WaitStrategy {
+
+    private final int spinTries;
+
+    private final int yieldTries;
+
+    private final long minParkNanos;
+
+    private final long maxParkNanos;
+
+    public BackoffWaitStrategy() {
+        this(100, 100, 1000, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * @param spinTries    自旋次数
+     * @param yieldTries   自旋之后让出CPU的次数
+     * @param minParkNanos 第一次睡眠的时间
+     * @param maxParkNanos 睡眠时间的上限
+     */
+    public BackoffWaitStrategy(int spinTries, int yieldTries, long minParkNanos, long maxParkNanos) {
+        if (spinTries < 0 || yieldTries < 0) {
+            throw new IllegalArgumentException("tries must not be less than 0");
+        }
+        if (minParkNanos < 1 || maxParkNanos < minParkNanos) {
+            throw new IllegalArgumentException("park nanos must satisfy 0 < min <= max");
+        }
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public int idle(int counter) throws InterruptedException {
+        if (counter < spinTries) {
+            Thread.onSpinWait();
+        } else if (counter < spinTries + yieldTries) {
+            Thread.yield();
+        } else {
+            // 睡眠的轮数，超过63位的移位没有意义
+            final int round = Math.min(counter - spinTries - yieldTries, 62);
+            final long parkNanos = minParkNanos << round;
+            LockSupport.parkNanos(this, parkNanos <= 0 || parkNanos > maxParkNanos ? maxParkNanos : parkNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            // 已经到达上限之后不再增长，防止counter溢出
+            return parkNanos <= 0 || parkNanos >= maxParkNanos ? counter : counter + 1;
+        }
+        return counter + 1;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cc.wheel.ring.wait;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 阻塞等待，空闲时不占用CPU，由队列状态改变时的signalAll唤醒
+ * 队列的条件检查不在锁内，存在检查之后、等待之前被通知的可能，所以每次等待都带有超时，超时时间就是丢失通知时的最大延迟
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition condition = lock.newCondition();
+
+    /**
+     * 等待中的线程数量，没有线程等待时signalAll不需要加锁
+     */
+    private final AtomicInteger waiters = new AtomicInteger(0);
+
+    private final long timeoutNanos;
+
+    public BlockingWaitStrategy() {
+        this(1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param timeout 每次等待的超时时间
+     * @param unit    时间单位
+     */
+    public BlockingWaitStrategy(long timeout, TimeUnit unit) {
+        if (timeout < 1) {
+            throw new IllegalArgumentException("timeout must not be less than 1");
+        }
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    @Override
+    public int idle(int counter) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            waiters.incrementAndGet();
+            try {
+                condition.awaitNanos(timeoutNanos);
+            } finally {
+                waiters.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return counter + 1;
+    }
+
+    @Override
+    public void signalAll() {
+        if (waiters.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
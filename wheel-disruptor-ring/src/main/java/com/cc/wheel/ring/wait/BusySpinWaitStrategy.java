@@ -0,0 +1,16 @@
+package com.cc.wheel.ring.wait;
+
+/**
+ * 忙等，延迟最低，但是会一直占用一个CPU核，适合线程绑核的独占机器
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public int idle(int counter) {
+        Thread.onSpinWait();
+        return counter + 1;
+    }
+}
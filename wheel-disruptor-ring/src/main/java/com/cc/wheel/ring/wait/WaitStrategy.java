@@ -0,0 +1,25 @@
+package com.cc.wheel.ring.wait;
+
+/**
+ * 环形队列在槽位忙（满或者空）时的等待策略，用CPU换延迟或者用延迟换CPU
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public interface WaitStrategy {
+
+    /**
+     * 条件不满足时等待一次，由调用方在循环中重试条件
+     *
+     * @param counter 本次等待之前已经等待的次数，第一次等待为0
+     * @return 下一次等待时传入的counter
+     * @throws InterruptedException while the thread is interrupted
+     */
+    int idle(int counter) throws InterruptedException;
+
+    /**
+     * 队列状态改变后通知等待中的线程，只有阻塞的策略需要实现
+     */
+    default void signalAll() {
+    }
+}
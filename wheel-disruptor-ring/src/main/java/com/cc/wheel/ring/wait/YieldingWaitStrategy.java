@@ -0,0 +1,16 @@
+package com.cc.wheel.ring.wait;
+
+/**
+ * 每次等待都让出CPU，延迟较低，空闲时依然会占满一个CPU核
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    @Override
+    public int idle(int counter) {
+        Thread.yield();
+        return counter + 1;
+    }
+}
@@ -0,0 +1,57 @@
+package com.cc.wheel.ring
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class MappedByteRingBufferTest extends Specification {
+
+    def "test two mappings of the same file exchange records"() {
+        given:
+        def path = Files.createTempFile("mapped-ring", ".shm")
+        Files.delete(path)
+        // 两个映射模拟两个进程
+        def producer = MappedByteRingBuffer.open(path, 1 << 10)
+        def consumer = MappedByteRingBuffer.open(path, 1 << 10)
+        def count = 10000
+        def result = []
+
+        when:
+        def thread = Thread.start {
+            for (int i = 0; i < count; i++) {
+                def bytes = "message-$i".getBytes(StandardCharsets.UTF_8)
+                while (!producer.offer(bytes, 0, bytes.length)) {
+                    Thread.yield()
+                }
+            }
+        }
+        while (result.size() < count) {
+            consumer.read({ buffer, offset, length ->
+                def bytes = new byte[length]
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = buffer.get(offset + i)
+                }
+                result.add(new String(bytes, StandardCharsets.UTF_8))
+            } as MappedByteRingBuffer.RecordHandler, 16)
+        }
+        thread.join()
+
+        then:
+        result == (0..<count).collect { "message-$it".toString() }
+        consumer.size() == 0
+
+        when:
+        MappedByteRingBuffer.open(path, 1 << 11)
+
+        then:
+        thrown(IllegalStateException)
+
+        cleanup:
+        Files.deleteIfExists(path)
+    }
+}
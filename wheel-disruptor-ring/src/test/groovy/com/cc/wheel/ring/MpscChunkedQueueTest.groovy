@@ -0,0 +1,61 @@
+package com.cc.wheel.ring
+
+import spock.lang.Specification
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class MpscChunkedQueueTest extends Specification {
+
+    def "test grow by chunk without blocking"() {
+        given:
+        def queue = new MpscChunkedQueue<Integer>(1 << 2)
+
+        when:
+        (0..<100).each { queue.offer(it) }
+        def result = []
+        queue.drain({ result.add(it) }, Integer.MAX_VALUE)
+
+        then:
+        result == (0..<100).toList()
+        queue.isEmpty()
+        queue.poll() == null
+    }
+
+    def "test multi producer keep per producer order"() {
+        given:
+        def queue = new MpscChunkedQueue<Integer>(1 << 4)
+        def producers = 4
+        def count = 10000
+        def last = [-1] * producers
+        def wrong = 0
+
+        when:
+        def threads = (0..<producers).collect { id ->
+            Thread.start {
+                for (int i = 0; i < count; i++) {
+                    queue.offer(id * count + i)
+                }
+            }
+        }
+        for (int received = 0; received < producers * count;) {
+            def value = queue.poll()
+            if (value == null) {
+                Thread.yield()
+                continue
+            }
+            def id = value.intdiv(count)
+            if (value % count != last[id] + 1) {
+                wrong++
+            }
+            last[id] = value % count
+            received++
+        }
+        threads.each { it.join() }
+
+        then:
+        wrong == 0
+        queue.size() == 0
+    }
+}
@@ -0,0 +1,51 @@
+package com.cc.wheel.ring
+
+import spock.lang.Specification
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class OverwriteRingBufferTest extends Specification {
+
+    def "test overwrite oldest and count dropped"() {
+        given:
+        def ring = new OverwriteRingBuffer<Integer>(1 << 2)
+
+        when:
+        (0..<10).each { ring.put(it) }
+        def result = []
+        ring.drainTo({ result.add(it) }, Integer.MAX_VALUE)
+
+        then:
+        result == [6, 7, 8, 9]
+        ring.dropped() == 6
+        ring.poll() == null
+        ring.size() == 0
+    }
+
+    def "test multi producer never block"() {
+        given:
+        def ring = new OverwriteRingBuffer<Integer>(1 << 4)
+        def producers = 4
+        def count = 10000
+        def received = 0
+
+        when:
+        def threads = (0..<producers).collect {
+            Thread.start {
+                for (int i = 0; i < count; i++) {
+                    ring.put(i)
+                }
+            }
+        }
+        while (threads.any { it.alive }) {
+            received += ring.drainTo({}, 64)
+        }
+        received += ring.drainTo({}, Integer.MAX_VALUE)
+
+        then:
+        received + ring.dropped() == producers * count
+        ring.size() == 0
+    }
+}
@@ -0,0 +1,58 @@
+package com.cc.wheel.ring
+
+import com.cc.wheel.ring.wait.YieldingWaitStrategy
+import spock.lang.Specification
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class PrimitiveRingBufferTest extends Specification {
+
+    def "test long ring buffer"() {
+        given:
+        def ring = new LongRingBuffer(1 << 4, mode, new YieldingWaitStrategy())
+        def count = 10000
+        def sum = 0L
+
+        when:
+        def producer = Thread.start {
+            for (long i = 1; i <= count; i++) {
+                ring.put(i)
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            sum += ring.take()
+        }
+        producer.join()
+
+        then:
+        sum == count * (count + 1L) / 2
+        ring.poll() == LongRingBuffer.EMPTY
+
+        when:
+        ring.put(LongRingBuffer.EMPTY)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        mode << [RingMode.MPMC, RingMode.SPSC]
+    }
+
+    def "test int ring buffer offer poll"() {
+        given:
+        def ring = new IntRingBuffer(1 << 2, mode, new YieldingWaitStrategy())
+
+        expect:
+        ring.poll() == IntRingBuffer.EMPTY
+        (1..4).every { ring.offer(it) }
+        !ring.offer(5)
+        ring.size() == 4
+        (1..4).collect { ring.poll() } == [1, 2, 3, 4]
+        ring.remainingCapacity() == 4
+
+        where:
+        mode << [RingMode.MPMC, RingMode.SPSC]
+    }
+}
@@ -0,0 +1,101 @@
+package com.cc.wheel.ring
+
+import spock.lang.Specification
+
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class RingBlockingQueueTest extends Specification {
+
+    def "test blocking queue semantics"() {
+        given:
+        def queue = new RingBlockingQueue<Integer>(1 << 2)
+        def drained = []
+
+        expect:
+        queue.poll() == null
+        queue.peek() == null
+        (1..4).every { queue.offer(it) }
+        !queue.offer(5)
+        !queue.offer(5, 10, TimeUnit.MILLISECONDS)
+        queue.peek() == 1
+        queue.toList() == [1, 2, 3, 4]
+        queue.remainingCapacity() == 0
+        queue.drainTo(drained, 3) == 3
+        drained == [1, 2, 3]
+        queue.take() == 4
+        queue.isEmpty()
+        queue.poll(10, TimeUnit.MILLISECONDS) == null
+    }
+
+    def "test work queue of thread pool executor"() {
+        given:
+        def executor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new RingBlockingQueue<Runnable>(1 << 10),
+                new ThreadPoolExecutor.CallerRunsPolicy())
+        def counter = new AtomicLong()
+        def count = 100000
+
+        when:
+        // 先启动工作线程，队列满时由提交线程自己执行任务
+        executor.prestartAllCoreThreads()
+        for (int i = 0; i < count; i++) {
+            executor.execute({ counter.incrementAndGet() } as Runnable)
+        }
+        executor.shutdown()
+        def terminated = executor.awaitTermination(1, TimeUnit.MINUTES)
+
+        then:
+        terminated
+        counter.get() == count
+    }
+
+    def "test interrupt blocked take"() {
+        given:
+        def queue = new RingBlockingQueue<Integer>(1 << 2)
+        def interrupted = false
+        def consumer = Thread.start {
+            try {
+                queue.take()
+            } catch (InterruptedException ignored) {
+                interrupted = true
+            }
+        }
+        // 等消费者进入等待
+        Thread.sleep(100)
+
+        when:
+        consumer.interrupt()
+        consumer.join(5000)
+
+        then:
+        // 被中断的take没有占用槽位，之后的元素仍然可以读到
+        interrupted
+        queue.offer(1)
+        queue.size() == 1
+        queue.poll(100, TimeUnit.MILLISECONDS) == 1
+        (0..<10).every { queue.offer(it) && queue.take() == it }
+    }
+
+    def "test executor interrupt idle worker"() {
+        given:
+        def executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new RingBlockingQueue<Runnable>(1 << 4))
+        def counter = new AtomicLong()
+        executor.prestartAllCoreThreads()
+
+        when:
+        // 缩小核心线程数时线程池中断空闲的工作线程
+        executor.setCorePoolSize(1)
+        Thread.sleep(100)
+        (0..<3).each { executor.execute({ counter.incrementAndGet() } as Runnable) }
+        executor.shutdown()
+
+        then:
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+        counter.get() == 3
+    }
+}
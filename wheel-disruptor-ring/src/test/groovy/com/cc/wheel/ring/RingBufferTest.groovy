@@ -0,0 +1,254 @@
+package com.cc.wheel.ring
+
+import com.cc.wheel.ring.metrics.RingMetrics
+import com.cc.wheel.ring.wait.BackoffWaitStrategy
+import com.cc.wheel.ring.wait.BlockingWaitStrategy
+import com.cc.wheel.ring.wait.YieldingWaitStrategy
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class RingBufferTest extends Specification {
+
+    def "test spsc ring buffer keep order"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 4, RingMode.SPSC)
+        def count = 100000
+        def result = []
+
+        when:
+        def producer = Thread.start {
+            for (int i = 0; i < count; i++) {
+                ring.put(i)
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            result.add(ring.take())
+        }
+        producer.join()
+
+        then:
+        result == (0..<count).toList()
+    }
+
+    def "test mpmc ring buffer lose nothing"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 4)
+        def count = 10000
+        def sum = 0L
+
+        when:
+        def producers = (0..<4).collect {
+            Thread.start {
+                for (int i = 1; i <= count; i++) {
+                    ring.put(i)
+                }
+            }
+        }
+        for (int i = 0; i < 4 * count; i++) {
+            sum += ring.take()
+        }
+        producers.each { it.join() }
+
+        then:
+        sum == 4L * count * (count + 1) / 2
+    }
+
+    def "test batch put and drain"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 4, mode)
+        def count = 10000
+        def result = []
+
+        when:
+        def producer = Thread.start {
+            Integer[] batch = new Integer[7]
+            for (int i = 0; i < count; i += batch.length) {
+                def len = Math.min(batch.length, count - i)
+                for (int j = 0; j < len; j++) {
+                    batch[j] = i + j
+                }
+                ring.putAll(batch, 0, len)
+            }
+        }
+        while (result.size() < count) {
+            if (ring.drainTo({ result.add(it) }, 5) == 0) {
+                Thread.yield()
+            }
+        }
+        producer.join()
+
+        then:
+        result == (0..<count).toList()
+        ring.drainTo({ result.add(it) }, 5) == 0
+
+        where:
+        mode << [RingMode.MPMC, RingMode.SPSC]
+    }
+
+    def "test interrupt batch put after claim"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 2, RingMode.MPMC, new BlockingWaitStrategy())
+        (0..<4).each { ring.put(it) }
+        def interrupted = false
+        def producer = Thread.start {
+            ring.putAll([4, 5, 6, 7] as Integer[], 0, 4)
+            interrupted = Thread.currentThread().isInterrupted()
+        }
+        // 等生产者占用下标之后再中断，占用之前的中断会直接抛出InterruptedException
+        def deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (ring.@writeIndex < 8 && System.nanoTime() < deadline) {
+            Thread.yield()
+        }
+        def claimed = ring.@writeIndex == 8
+
+        when:
+        producer.interrupt()
+        def result = []
+        while (result.size() < 8 && System.nanoTime() < deadline) {
+            if (ring.drainTo({ result.add(it) }, 8) == 0) {
+                Thread.yield()
+            }
+        }
+        producer.join(5000)
+
+        then:
+        claimed
+        // 已占用的下标都被填满，中断标记保留给调用方
+        result == (0..<8).toList()
+        !producer.isAlive()
+        interrupted
+    }
+
+    def "test wait strategy"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 2, mode, waitStrategy)
+        def count = 10000
+        def result = []
+
+        when:
+        def producer = Thread.start {
+            for (int i = 0; i < count; i++) {
+                ring.put(i)
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            result.add(ring.take())
+        }
+        producer.join()
+
+        then:
+        result == (0..<count).toList()
+
+        where:
+        mode            | waitStrategy
+        RingMode.MPMC   | new YieldingWaitStrategy()
+        RingMode.SPSC   | new YieldingWaitStrategy()
+        RingMode.MPMC   | new BackoffWaitStrategy()
+        RingMode.SPSC   | new BackoffWaitStrategy()
+        RingMode.MPMC   | new BlockingWaitStrategy()
+        RingMode.SPSC   | new BlockingWaitStrategy()
+    }
+
+    def "test offer poll fail fast"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 2, mode)
+
+        expect:
+        ring.poll() == null
+        ring.poll(10, TimeUnit.MILLISECONDS) == null
+        ring.size() == 0
+        ring.remainingCapacity() == 4
+
+        when:
+        def offered = (0..<4).collect { ring.offer(it) }
+
+        then:
+        offered.every()
+        !ring.offer(4)
+        !ring.offer(4, 10, TimeUnit.MILLISECONDS)
+        ring.size() == 4
+        ring.remainingCapacity() == 0
+
+        when:
+        def polled = (0..<4).collect { ring.poll() }
+
+        then:
+        polled == [0, 1, 2, 3]
+        ring.offer(4)
+        ring.size() == 1
+
+        where:
+        mode << [RingMode.MPMC, RingMode.SPSC]
+    }
+
+    def "test slot stride"() {
+        given:
+        def ring = new RingBuffer<Integer>(1 << 3, mode, new YieldingWaitStrategy(), stride)
+        def count = 100000
+        def wrong = 0
+
+        when:
+        def producer = Thread.start {
+            for (int i = 0; i < count; i++) {
+                ring.put(i)
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (ring.take() != i) {
+                wrong++
+            }
+        }
+        producer.join()
+
+        then:
+        wrong == 0
+        ring.size() == 0
+
+        where:
+        [mode, stride] << [[RingMode.MPMC, RingMode.SPSC], [1, 2, 4, 8, 16]].combinations()
+    }
+
+    def "test illegal slot stride"() {
+        when:
+        new RingBuffer<Integer>(1 << 3, RingMode.MPMC, new YieldingWaitStrategy(), stride)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        stride << [0, 3, 64]
+    }
+
+    def "test metrics"() {
+        given:
+        def metrics = new RingMetrics()
+        def ring = new RingBuffer<Integer>(1 << 2, mode, new YieldingWaitStrategy(), RingBuffer.DEFAULT_SLOT_STRIDE, metrics)
+
+        when:
+        ring.poll()
+        (0..<4).each { ring.put(it) }
+        ring.offer(4)
+        Thread.sleep(1)
+        def result = (0..<4).collect { ring.take() }
+        def snapshot = metrics.snapshot()
+
+        then:
+        result == [0, 1, 2, 3]
+        ring.metrics() == metrics
+        snapshot.count == 4
+        snapshot.fullCount == 1
+        snapshot.emptyCount == 1
+        snapshot.p50 >= 1000000
+        snapshot.p50 <= snapshot.p99
+        snapshot.p99 <= snapshot.p999
+        snapshot.p999 <= snapshot.max
+
+        where:
+        mode << [RingMode.MPMC, RingMode.SPSC]
+    }
+}
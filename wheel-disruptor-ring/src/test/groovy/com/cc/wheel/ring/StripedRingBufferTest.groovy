@@ -0,0 +1,123 @@
+package com.cc.wheel.ring
+
+import com.cc.wheel.ring.wait.YieldingWaitStrategy
+import spock.lang.Specification
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class StripedRingBufferTest extends Specification {
+
+    def "test spsc lanes keep per producer order"() {
+        given:
+        def lanes = 4
+        def ring = new StripedRingBuffer<Integer>(lanes, 1 << 4, RingMode.SPSC, new YieldingWaitStrategy())
+        def count = 10000
+        def last = [-1] * lanes
+        def wrong = 0
+
+        when:
+        def threads = (0..<lanes).collect { id ->
+            Thread.start {
+                for (int i = 0; i < count; i++) {
+                    ring.put(id * count + i)
+                }
+            }
+        }
+        for (int received = 0; received < lanes * count; received++) {
+            def value = ring.take()
+            def id = value.intdiv(count)
+            if (value % count != last[id] + 1) {
+                wrong++
+            }
+            last[id] = value % count
+        }
+        threads.each { it.join() }
+
+        then:
+        wrong == 0
+        ring.size() == 0
+    }
+
+    def "test spsc lanes reject extra producer"() {
+        given:
+        def ring = new StripedRingBuffer<Integer>(1, 1 << 2, RingMode.SPSC, new YieldingWaitStrategy())
+        ring.put(1)
+        def error = null
+
+        when:
+        Thread.start {
+            try {
+                ring.offer(2)
+            } catch (IllegalStateException e) {
+                error = e
+            }
+        }.join()
+
+        then:
+        error != null
+        ring.poll() == 1
+        ring.poll() == null
+    }
+
+    def "test spsc lanes reclaim from finished producer"() {
+        given:
+        def ring = new StripedRingBuffer<Integer>(1, 1 << 2, RingMode.SPSC, new YieldingWaitStrategy())
+        def error = null
+
+        when:
+        // 每个线程写完就结束，车道交给下一个线程
+        (0..<3).each { id ->
+            Thread.start {
+                try {
+                    ring.put(id)
+                } catch (IllegalStateException e) {
+                    error = e
+                }
+            }.join()
+        }
+        def first = (0..<3).collect { ring.poll() }
+        // 还活着的线程交还车道之后，其他线程也可以写入
+        ring.put(3)
+        ring.releaseLane()
+        Thread.start {
+            try {
+                ring.put(4)
+            } catch (IllegalStateException e) {
+                error = e
+            }
+        }.join()
+
+        then:
+        error == null
+        first == [0, 1, 2]
+        ring.poll() == 3
+        ring.poll() == 4
+    }
+
+    def "test mpmc lanes drain all"() {
+        given:
+        def ring = new StripedRingBuffer<Integer>(4, 1 << 4)
+        def producers = 8
+        def count = 10000
+        long sum = 0
+
+        when:
+        def threads = (0..<producers).collect {
+            Thread.start {
+                for (int i = 1; i <= count; i++) {
+                    ring.put(i)
+                }
+            }
+        }
+        for (int received = 0; received < producers * count;) {
+            received += ring.drainTo({ sum += it }, 64)
+        }
+        threads.each { it.join() }
+
+        then:
+        sum == (long) producers * count * (count + 1) / 2
+        ring.size() == 0
+    }
+}
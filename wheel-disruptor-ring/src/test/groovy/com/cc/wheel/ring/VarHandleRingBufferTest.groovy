@@ -0,0 +1,101 @@
+package com.cc.wheel.ring
+
+import com.cc.wheel.ring.wait.YieldingWaitStrategy
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class VarHandleRingBufferTest extends Specification {
+
+    def "test spsc keep order"() {
+        given:
+        def ring = new VarHandleRingBuffer<Integer>(1 << 3, RingMode.SPSC, new YieldingWaitStrategy())
+        def count = 100000
+        def wrong = 0
+
+        when:
+        def producer = Thread.start {
+            for (int i = 0; i < count; i++) {
+                if (i % 2 == 0) {
+                    ring.put(i)
+                } else {
+                    while (!ring.offer(i)) {
+                        Thread.yield()
+                    }
+                }
+            }
+        }
+        def expect = 0
+        while (expect < count) {
+            if (expect % 2 == 0) {
+                if (ring.take() != expect++) {
+                    wrong++
+                }
+            } else {
+                ring.drainTo({ if (it != expect++) wrong++ }, 4)
+            }
+        }
+        producer.join()
+
+        then:
+        wrong == 0
+        ring.size() == 0
+        ring.poll() == null
+    }
+
+    def "test mpmc lose nothing"() {
+        given:
+        def ring = new VarHandleRingBuffer<Integer>(1 << 4)
+        def producers = 4
+        def count = 10000
+        def sum = new AtomicLong()
+        def received = new AtomicLong()
+
+        when:
+        def threads = (0..<producers).collect {
+            Thread.start {
+                for (int i = 1; i <= count; i++) {
+                    ring.put(i)
+                }
+            }
+        }
+        def consumers = (0..<2).collect {
+            Thread.start {
+                while (received.get() < producers * count) {
+                    def value = ring.poll()
+                    if (value != null) {
+                        sum.addAndGet(value)
+                        received.incrementAndGet()
+                    }
+                }
+            }
+        }
+        (threads + consumers).each { it.join() }
+
+        then:
+        sum.get() == (long) producers * count * (count + 1) / 2
+        ring.size() == 0
+    }
+
+    def "test peek and snapshot"() {
+        given:
+        def ring = new VarHandleRingBuffer<Integer>(1 << 2, mode, new YieldingWaitStrategy())
+
+        expect:
+        ring.peek() == null
+        ring.toArray().length == 0
+        (1..3).every { ring.offer(it) }
+        ring.peek() == 1
+        ring.toArray() == [1, 2, 3] as Object[]
+        ring.poll() == 1
+        ring.peek() == 2
+        ring.toArray() == [2, 3] as Object[]
+
+        where:
+        mode << [RingMode.MPMC, RingMode.SPSC]
+    }
+}
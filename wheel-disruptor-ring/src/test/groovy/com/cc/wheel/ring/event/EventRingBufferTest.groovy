@@ -0,0 +1,135 @@
+package com.cc.wheel.ring.event
+
+import com.cc.wheel.ring.RingMode
+import com.cc.wheel.ring.wait.YieldingWaitStrategy
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class EventRingBufferTest extends Specification {
+
+    static class LongEvent {
+        long value
+    }
+
+    static class StageEvent {
+        long raw
+        long decoded
+        long enriched
+    }
+
+    def "test claim publish and consume in place"() {
+        given:
+        def ring = new EventRingBuffer<LongEvent>({ new LongEvent() } as EventFactory, 1 << 4, mode, new YieldingWaitStrategy())
+        def sequence = new Sequence()
+        ring.addGatingSequences(sequence)
+        def barrier = ring.newBarrier()
+        def count = 10000
+        def events = new HashSet<LongEvent>()
+        def sum = 0L
+
+        when:
+        def producers = (0..<producerCount).collect {
+            Thread.start {
+                for (int i = 1; i <= count; i++) {
+                    long seq = ring.claim()
+                    ring.get(seq).value = i
+                    ring.publish(seq)
+                }
+            }
+        }
+        long next = 0
+        while (next < producerCount * count) {
+            long available = barrier.waitFor(next)
+            for (long seq = next; seq <= available; seq++) {
+                def event = ring.get(seq)
+                events.add(event)
+                sum += event.value
+            }
+            sequence.set(available)
+            next = available + 1
+        }
+        producers.each { it.join() }
+
+        then:
+        sum == producerCount * count * (count + 1L) / 2
+        // 所有的事件都是构造时预先创建的
+        events.size() == 1 << 4
+
+        where:
+        mode          | producerCount
+        RingMode.SPSC | 1
+        RingMode.MPMC | 3
+    }
+
+    def "test multi stage pipeline process in place"() {
+        given:
+        def ring = new EventRingBuffer<StageEvent>({ new StageEvent() } as EventFactory, 1 << 4)
+        def pipeline = new EventPipeline<StageEvent>(ring, Executors.defaultThreadFactory())
+        def sum = new AtomicLong()
+        def wrong = new AtomicLong()
+        def count = 10000
+
+        when:
+        pipeline.handleEventsWith({ e, seq, end -> e.decoded = e.raw * 2 } as EventHandler)
+                .then({ e, seq, end -> e.enriched = e.decoded + 1 } as EventHandler)
+                .then({ e, seq, end ->
+                    if (e.enriched != e.raw * 2 + 1) {
+                        wrong.incrementAndGet()
+                    }
+                    sum.addAndGet(e.enriched)
+                } as EventHandler)
+        pipeline.start()
+        for (int i = 0; i < count; i++) {
+            long seq = ring.claim()
+            ring.get(seq).raw = i
+            ring.publish(seq)
+        }
+        pipeline.shutdown()
+
+        then:
+        wrong.get() == 0
+        sum.get() == (long) count * (count - 1) + count
+    }
+
+    def "test halt right after start"() {
+        given:
+        def rounds = 200
+        def stopped = 0
+        def processed = 0
+
+        when:
+        for (int r = 0; r < rounds; r++) {
+            def ring = new EventRingBuffer<LongEvent>({ new LongEvent() } as EventFactory, 1 << 4)
+            def pipeline = new EventPipeline<LongEvent>(ring, Executors.defaultThreadFactory())
+            def count = new AtomicLong()
+            pipeline.handleEventsWith({ e, seq, end -> } as EventHandler, { e, seq, end -> } as EventHandler)
+                    .then({ e, seq, end -> count.incrementAndGet() } as EventHandler)
+            // 处理者的线程可能还没有进入run
+            pipeline.start()
+            def stopper
+            if (r % 2 == 0) {
+                stopper = Thread.start { pipeline.halt() }
+            } else {
+                (0..<5).each { ring.publish(ring.claim()) }
+                stopper = Thread.start { pipeline.shutdown() }
+            }
+            stopper.join(5000)
+            if (!stopper.isAlive()) {
+                stopped++
+            }
+            if (r % 2 == 1 && count.get() == 5) {
+                processed++
+            }
+        }
+
+        then:
+        stopped == rounds
+        processed == rounds / 2
+    }
+}
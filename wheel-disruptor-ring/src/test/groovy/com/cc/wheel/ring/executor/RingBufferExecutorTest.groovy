@@ -0,0 +1,136 @@
+package com.cc.wheel.ring.executor
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class RingBufferExecutorTest extends Specification {
+
+    def "test execute all tasks"() {
+        given:
+        def executor = new RingBufferExecutor(4, 1 << 10)
+        def count = 100000
+        def latch = new CountDownLatch(count)
+        def sum = new AtomicLong()
+
+        when:
+        def producers = (0..<2).collect {
+            Thread.start {
+                for (int i = 0; i < count / 2; i++) {
+                    def task = { sum.incrementAndGet(); latch.countDown() } as Runnable
+                    while (true) {
+                        try {
+                            executor.execute(task)
+                            break
+                        } catch (RejectedExecutionException ignored) {
+                            Thread.yield()
+                        }
+                    }
+                }
+            }
+        }
+        producers.each { it.join() }
+
+        then:
+        latch.await(30, TimeUnit.SECONDS)
+        sum.get() == count
+        executor.submit({ 42 } as java.util.concurrent.Callable).get(5, TimeUnit.SECONDS) == 42
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "test task exception not kill worker"() {
+        given:
+        def executor = new RingBufferExecutor(1, 1 << 4)
+
+        when:
+        executor.execute({ throw new IllegalStateException("test") } as Runnable)
+        def result = executor.submit({ 1 } as java.util.concurrent.Callable).get(5, TimeUnit.SECONDS)
+
+        then:
+        result == 1
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "test shutdown"() {
+        given:
+        def executor = new RingBufferExecutor(2, 1 << 4)
+        def done = new AtomicLong()
+
+        when:
+        (0..<10).each { executor.execute({ done.incrementAndGet() } as Runnable) }
+        executor.shutdown()
+        executor.execute({} as Runnable)
+
+        then:
+        thrown(RejectedExecutionException)
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+        executor.isTerminated()
+        done.get() == 10
+    }
+
+    def "test shutdown now"() {
+        given:
+        def executor = new RingBufferExecutor(1, 1 << 4)
+        def block = new CountDownLatch(1)
+        def started = new CountDownLatch(1)
+        def interrupted = false
+
+        when:
+        executor.execute({
+            started.countDown()
+            try {
+                block.await()
+            } catch (InterruptedException ignored) {
+                interrupted = true
+            }
+        } as Runnable)
+        started.await()
+        (0..<5).each { executor.execute({} as Runnable) }
+        def remaining = executor.shutdownNow()
+
+        then:
+        remaining.size() == 5
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+        interrupted
+    }
+
+    def "test shutdown now skip claimed tasks"() {
+        given:
+        def start = new CountDownLatch(1)
+        // 工作线程等start之后才开始取任务，保证所有任务在同一批里
+        def factory = { Runnable r -> new Thread({ start.await(); r.run() } as Runnable) } as ThreadFactory
+        def executor = new RingBufferExecutor(1, 1 << 4, 8, 0, factory)
+        def started = new CountDownLatch(1)
+        def done = new AtomicLong()
+
+        when:
+        executor.execute({
+            started.countDown()
+            try {
+                new CountDownLatch(1).await()
+            } catch (InterruptedException ignored) {
+            }
+        } as Runnable)
+        (0..<5).each { executor.execute({ done.incrementAndGet() } as Runnable) }
+        start.countDown()
+        started.await()
+        def remaining = executor.shutdownNow()
+
+        then:
+        remaining.isEmpty()
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+        done.get() == 0
+    }
+}
@@ -0,0 +1,39 @@
+package com.cc.wheel.ring.metrics
+
+import spock.lang.Specification
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class LatencyHistogramTest extends Specification {
+
+    def "test value fall into its bucket"() {
+        when:
+        def index = LatencyHistogram.index(value)
+        def lowest = index == 0 ? 0 : LatencyHistogram.highestValue(index - 1) + 1
+
+        then:
+        lowest <= value
+        value <= LatencyHistogram.highestValue(index)
+
+        where:
+        value << [0L, 1L, 31L, 32L, 63L, 64L, 65L, 127L, 128L, 1000L, 123456789L, Long.MAX_VALUE]
+    }
+
+    def "test percentile within relative error"() {
+        given:
+        def histogram = new LatencyHistogram()
+
+        when:
+        (1..100000).each { histogram.record(it * 1000L) }
+
+        then:
+        histogram.count() == 100000
+        histogram.max() == 100000000
+        Math.abs(histogram.valueAtPercentile(50) - 50000000) <= 50000000 / 32
+        Math.abs(histogram.valueAtPercentile(99) - 99000000) <= 99000000 / 32
+        histogram.valueAtPercentile(100) == 100000000
+        new LatencyHistogram().valueAtPercentile(99) == 0
+    }
+}
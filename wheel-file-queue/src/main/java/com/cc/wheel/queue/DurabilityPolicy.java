@@ -0,0 +1,75 @@
+package com.cc.wheel.queue;
+
+import lombok.Getter;
+
+/**
+ * 文件队列的持久化策略，决定写线程什么时候把已经写入的消息force到磁盘
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Getter
+public class DurabilityPolicy {
+
+    public enum Type {
+        /**
+         * 从不主动force，由操作系统决定什么时候落盘
+         */
+        NONE,
+        /**
+         * 每写入value条消息force一次
+         */
+        EVERY_MESSAGES,
+        /**
+         * 有未落盘的消息时，每value毫秒force一次
+         */
+        EVERY_MILLIS,
+        /**
+         * put等待消息落盘之后才返回，写线程把同时等待的put合并为一次force（group commit）
+         */
+        SYNC
+    }
+
+    private static final DurabilityPolicy NONE = new DurabilityPolicy(Type.NONE, 0);
+
+    private static final DurabilityPolicy SYNC = new DurabilityPolicy(Type.SYNC, 0);
+
+    private final Type type;
+
+    private final long value;
+
+    private DurabilityPolicy(Type type, long value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public static DurabilityPolicy none() {
+        return NONE;
+    }
+
+    public static DurabilityPolicy sync() {
+        return SYNC;
+    }
+
+    /**
+     * @param messages 每多少条消息force一次
+     * @return 持久化策略
+     */
+    public static DurabilityPolicy everyMessages(int messages) {
+        if (messages < 1) {
+            throw new IllegalArgumentException("messages must not be less than 1");
+        }
+        return new DurabilityPolicy(Type.EVERY_MESSAGES, messages);
+    }
+
+    /**
+     * @param millis 每多少毫秒force一次
+     * @return 持久化策略
+     */
+    public static DurabilityPolicy everyMillis(long millis) {
+        if (millis < 1) {
+            throw new IllegalArgumentException("millis must not be less than 1");
+        }
+        return new DurabilityPolicy(Type.EVERY_MILLIS, millis);
+    }
+}
@@ -1,5 +1,11 @@
 package com.cc.wheel.queue;
 
+import com.cc.wheel.queue.file.QueueRecord;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * @author cc
  * @date 2023/9/20
@@ -13,6 +19,29 @@ public interface FileQueue {
      */
     void put(String message) throws InterruptedException;
 
+    /**
+     * put the messages into queue as one batch, they are written to the file together,
+     * maybe block when the message is too many to append to the circle file;
+     * @param messages the messages
+     * @throws InterruptedException while the thread is interrupted
+     */
+    void putAll(List<String> messages) throws InterruptedException;
+
+    /**
+     * put a raw payload into queue, the caller must not modify the array after this call;
+     * @param payload the payload
+     * @throws InterruptedException while the thread is interrupted
+     */
+    void put(byte[] payload) throws InterruptedException;
+
+    /**
+     * put the remaining bytes of the buffer into queue with flags, the bytes are copied and the position moves to the limit;
+     * @param payload the payload
+     * @param flags the flags of the record, from 0 to RecordCodec.USER_FLAGS_MASK
+     * @throws InterruptedException while the thread is interrupted
+     */
+    void put(ByteBuffer payload, int flags) throws InterruptedException;
+
     /**
      * take a message from queue, maybe block when there is no message in the circle file;
      * @return a message
@@ -20,4 +49,53 @@ public interface FileQueue {
      */
     String take() throws InterruptedException;
 
+    /**
+     * take at least one and at most max messages from queue as one batch,
+     * maybe block when there is no message in the circle file;
+     * @param messages the collection to add the messages to
+     * @param max the maximum number of messages to take
+     * @return the number of messages taken
+     * @throws InterruptedException while the thread is interrupted
+     */
+    int drainTo(Collection<? super String> messages, int max) throws InterruptedException;
+
+    /**
+     * take a raw payload from queue, maybe block when there is no message in the circle file;
+     * @return the payload
+     * @throws InterruptedException while the thread is interrupted
+     */
+    byte[] takeBytes() throws InterruptedException;
+
+    /**
+     * take a record with its flags from queue, maybe block when there is no message in the circle file;
+     * @return the record
+     * @throws InterruptedException while the thread is interrupted
+     */
+    QueueRecord takeRecord() throws InterruptedException;
+
+
+    /**
+     * take a message from the consumer group, every group reads all messages at its own pace,
+     * maybe block when there is no message for the group;
+     * @param group the name of the consumer group, created on first use
+     * @return a message
+     * @throws InterruptedException while the thread is interrupted
+     */
+    String take(String group) throws InterruptedException;
+
+    /**
+     * take a record with its flags from the consumer group, maybe block when there is no message for the group;
+     * @param group the name of the consumer group, created on first use
+     * @return the record
+     * @throws InterruptedException while the thread is interrupted
+     */
+    QueueRecord takeRecord(String group) throws InterruptedException;
+
+    /**
+     * move the consumer group to the offset, the next take of the group returns the message at the offset;
+     * @param group the name of the consumer group, created on first use
+     * @param offset the offset of the message, see QueueRecord.getOffset
+     */
+    void seek(String group, long offset);
+
 }
@@ -0,0 +1,145 @@
+package com.cc.wheel.queue.broker;
+
+import com.cc.wheel.queue.DurabilityPolicy;
+import com.cc.wheel.queue.FileQueue;
+import com.cc.wheel.queue.file.CircleFileQueue;
+import com.cc.wheel.queue.file.QueueRecord;
+import com.cc.wheel.queue.message.MessageProvider;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 代理中的一个主题，写入交给共享的写线程，读取在调用线程上直接读取消费组
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Getter
+class BrokerTopic implements FileQueue {
+
+    private final FileQueueBroker broker;
+
+    private final String name;
+
+    private final CircleFileQueue queue;
+
+    private final MessageProvider provider;
+
+    private final IoWorker worker;
+
+    /**
+     * 是否已经在写线程的就绪队列里，避免每条消息都入队一次
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    BrokerTopic(FileQueueBroker broker, String name, CircleFileQueue queue, DurabilityPolicy durabilityPolicy, IoWorker worker) {
+        this.broker = broker;
+        this.name = name;
+        this.queue = queue;
+        this.worker = worker;
+        this.provider = new MessageProvider(queue, durabilityPolicy, this::schedule);
+    }
+
+    private void schedule() {
+        if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+            worker.schedule(this);
+        }
+    }
+
+    /**
+     * 写线程调用，先清除标记再写入，写入期间到达的请求会重新调度
+     */
+    void writePending() {
+        scheduled.set(false);
+        provider.writePending();
+    }
+
+    private void checkOpen() {
+        if (broker.isClosed()) {
+            throw new IllegalStateException("Broker is closed");
+        }
+    }
+
+    @Override
+    public void put(String message) throws InterruptedException {
+        checkOpen();
+        provider.putMessage(message);
+    }
+
+    @Override
+    public void putAll(List<String> messages) throws InterruptedException {
+        checkOpen();
+        provider.putAll(messages);
+    }
+
+    @Override
+    public void put(byte[] payload) throws InterruptedException {
+        checkOpen();
+        provider.putMessage(payload, 0);
+    }
+
+    @Override
+    public void put(ByteBuffer payload, int flags) throws InterruptedException {
+        checkOpen();
+        provider.putMessage(payload, flags);
+    }
+
+    @Override
+    public String take() throws InterruptedException {
+        return take(CircleFileQueue.DEFAULT_GROUP);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> messages, int max) throws InterruptedException {
+        List<QueueRecord> records = new ArrayList<>();
+        try {
+            queue.consumerGroup(CircleFileQueue.DEFAULT_GROUP).drainTo(records, max);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error get message from file", e);
+        }
+        for (QueueRecord record : records) {
+            messages.add(record.getMessage());
+        }
+        return records.size();
+    }
+
+    @Override
+    public byte[] takeBytes() throws InterruptedException {
+        return takeRecord(CircleFileQueue.DEFAULT_GROUP).getPayload();
+    }
+
+    @Override
+    public QueueRecord takeRecord() throws InterruptedException {
+        return takeRecord(CircleFileQueue.DEFAULT_GROUP);
+    }
+
+    @Override
+    public String take(String group) throws InterruptedException {
+        return takeRecord(group).getMessage();
+    }
+
+    @Override
+    public QueueRecord takeRecord(String group) throws InterruptedException {
+        try {
+            return queue.consumerGroup(group).takeRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error get message from file", e);
+        }
+    }
+
+    @Override
+    public void seek(String group, long offset) {
+        try {
+            queue.consumerGroup(group).seek(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error seek file", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.cc.wheel.queue.broker;
+
+import com.cc.wheel.queue.DurabilityPolicy;
+import com.cc.wheel.queue.FileQueue;
+import com.cc.wheel.queue.file.CircleFileQueue;
+import com.cc.wheel.queue.file.StorageMode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 管理一个根目录下的多个主题，每个主题是一个独立的文件队列，数据放在根目录下和主题同名的子目录里
+ * 所有主题的写入由固定数量的写线程完成，每个主题固定由其中一个写线程写入，主题再多也不会增加线程
+ * 读取在调用take的线程上直接进行，不占用写线程
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Slf4j
+public class FileQueueBroker {
+
+    private static final String FILE_PREFIX = "segment-";
+
+    private final String rootDir;
+
+    private final int fileSize;
+
+    private final StorageMode storageMode;
+
+    private final int segmentBytes;
+
+    private final DurabilityPolicy durabilityPolicy;
+
+    private final IoWorker[] workers;
+
+    private final Map<String, BrokerTopic> topics = new ConcurrentHashMap<>();
+
+    private int nextWorker;
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param rootDir 根目录
+     */
+    public FileQueueBroker(String rootDir) {
+        this(rootDir, 2, 128 * 1024, StorageMode.STREAM, 0, DurabilityPolicy.none());
+    }
+
+    /**
+     * @param rootDir          根目录，不存在时创建
+     * @param ioThreads        写线程数量
+     * @param fileSize         每个段文件的消息数量
+     * @param storageMode      段文件的读写方式
+     * @param segmentBytes     MAPPED模式下每个段文件预分配的字节数
+     * @param durabilityPolicy 所有主题的持久化策略
+     */
+    public FileQueueBroker(@NonNull String rootDir, int ioThreads, int fileSize, @NonNull StorageMode storageMode,
+                           int segmentBytes, @NonNull DurabilityPolicy durabilityPolicy) {
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("ioThreads must not be less than 1");
+        }
+        if (fileSize < 1) {
+            throw new IllegalArgumentException("fileSize must not be less than 1");
+        }
+        this.rootDir = rootDir;
+        this.fileSize = fileSize;
+        this.storageMode = storageMode;
+        this.segmentBytes = segmentBytes;
+        this.durabilityPolicy = durabilityPolicy;
+
+        File dir = new File(rootDir);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new RuntimeException("Root dir create fail : " + dir.getAbsolutePath());
+        }
+        ThreadFactory factory = new ThreadFactoryBuilder()
+                .setNameFormat("File-Queue-Broker-%d")
+                .setDaemon(true)
+                .build();
+        long tickMillis = durabilityPolicy.getType() == DurabilityPolicy.Type.EVERY_MILLIS ? durabilityPolicy.getValue() : 0;
+        this.workers = new IoWorker[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            this.workers[i] = new IoWorker(tickMillis, factory);
+        }
+    }
+
+    /**
+     * 获取主题，不存在时创建，已有数据的主题在第一次获取时恢复
+     *
+     * @param name 主题名称，只能包含字母、数字、下划线和中划线
+     * @return 主题的文件队列
+     */
+    public FileQueue topic(@NonNull String name) {
+        BrokerTopic topic = topics.get(name);
+        if (topic != null) {
+            return topic;
+        }
+        if (!name.matches("[\\w-]+")) {
+            throw new IllegalArgumentException("Illegal topic name : " + name);
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Broker is closed");
+            }
+            return topics.computeIfAbsent(name, this::openTopic);
+        }
+    }
+
+    private BrokerTopic openTopic(String name) {
+        CircleFileQueue queue = new CircleFileQueue(rootDir + "/" + name, FILE_PREFIX, fileSize, storageMode, segmentBytes,
+                durabilityPolicy.getType() != DurabilityPolicy.Type.NONE, CircleFileQueue.DEFAULT_CHECKPOINT_INTERVAL);
+        // 轮流分配写线程
+        IoWorker worker = workers[nextWorker++ % workers.length];
+        BrokerTopic topic = new BrokerTopic(this, name, queue, durabilityPolicy, worker);
+        worker.register(topic);
+        log.info("Open topic {} on {}", name, rootDir);
+        return topic;
+    }
+
+    /**
+     * @return 已经打开的主题数量
+     */
+    public int topicCount() {
+        return topics.size();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 写完已经提交的消息之后停止所有写线程，之后不能再写入
+     *
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        for (IoWorker worker : workers) {
+            worker.shutdown();
+        }
+        for (IoWorker worker : workers) {
+            worker.awaitTermination();
+        }
+    }
+}
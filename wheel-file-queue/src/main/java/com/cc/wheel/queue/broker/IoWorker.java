@@ -0,0 +1,104 @@
+package com.cc.wheel.queue.broker;
+
+import com.cc.wheel.queue.DurabilityPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享的写线程，负责多个主题的写入
+ * 主题有新的写入请求时把自己放进就绪队列，写线程依次取出就绪的主题，写入它当前所有的请求
+ * 写线程在FileChannel上读写，中断会关闭通道，所以关闭时不中断写线程，而是放入一个关闭标记唤醒它
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Slf4j
+class IoWorker implements Runnable {
+
+    private final BlockingQueue<BrokerTopic> ready = new LinkedBlockingQueue<>();
+
+    private final List<BrokerTopic> topics = new CopyOnWriteArrayList<>();
+
+    /**
+     * 按时间force时检查所有主题的间隔，0表示不需要检查
+     */
+    private final long tickNanos;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    /**
+     * 关闭标记，只用来唤醒在就绪队列上等待的写线程，不会被写入
+     */
+    private final BrokerTopic shutdownSignal;
+
+    IoWorker(long tickMillis, ThreadFactory factory) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.shutdownSignal = new BrokerTopic(null, "shutdown", null, DurabilityPolicy.none(), this);
+        this.thread = factory.newThread(this);
+        this.thread.start();
+    }
+
+    void register(BrokerTopic topic) {
+        topics.add(topic);
+    }
+
+    /**
+     * 主题有新的写入请求时调用
+     */
+    void schedule(BrokerTopic topic) {
+        ready.offer(topic);
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime() + tickNanos;
+        while (running) {
+            try {
+                BrokerTopic topic = tickNanos > 0
+                        ? ready.poll(Math.max(0, nextTick - System.nanoTime()), TimeUnit.NANOSECONDS)
+                        : ready.take();
+                if (Objects.nonNull(topic) && topic != shutdownSignal) {
+                    topic.writePending();
+                }
+                if (tickNanos > 0 && System.nanoTime() >= nextTick) {
+                    for (BrokerTopic t : topics) {
+                        t.getProvider().writePending();
+                    }
+                    nextTick = System.nanoTime() + tickNanos;
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                log.error("Error write topic", e);
+            }
+        }
+        // 写完关闭之前已经提交的请求，之后的请求会被拒绝
+        for (BrokerTopic topic : topics) {
+            topic.getProvider().close();
+            try {
+                topic.getQueue().closeWriter();
+            } catch (IOException e) {
+                log.error("Close topic {} fail", topic.getName(), e);
+            }
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        ready.offer(shutdownSignal);
+    }
+
+    void awaitTermination() throws InterruptedException {
+        thread.join();
+    }
+}
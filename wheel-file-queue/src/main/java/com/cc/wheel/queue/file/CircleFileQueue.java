@@ -3,13 +3,17 @@ package com.cc.wheel.queue.file;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author cc
@@ -17,100 +21,563 @@ import java.util.concurrent.locks.LockSupport;
  */
 @Slf4j
 public class CircleFileQueue {
-    private final String dataPath = "./data";
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+    /**
+     * takeMessage等方法使用的消费组
+     */
+    public static final String DEFAULT_GROUP = "default";
+    private static final String CHECKPOINT_INFIX = "checkpoint-";
+    /**
+     * putMessages一次写入的最大字节数
+     */
+    private static final int MAX_BATCH_BYTES = 4 * 1024 * 1024;
+    public static final String DEFAULT_DATA_PATH = "./data";
+    private final String dataPath;
     private final String filePrefix;
     private final int fileSize;
-    private volatile Thread readThread;
-    private long readFileIndex;
+    private final StorageMode storageMode;
+    private final int segmentBytes;
+    private final boolean forceOnRotate;
     private long writeFileIndex;
-    private FileInputStream inputStream;
-    private FileOutputStream outputStream;
-    private final AtomicLong readIndex = new AtomicLong(0);
+    private SegmentWriter writer;
+    /**
+     * 当前段文件的索引，seek时读取方直接在它的映射中查找
+     */
+    private volatile SegmentIndex segmentIndex;
+    /**
+     * 写完的段文件的只读索引，删除段文件时移除
+     */
+    private final Map<Long, SegmentIndex> sealedIndexes = new ConcurrentHashMap<>();
+    /**
+     * 下一条记录在当前段文件中的字节位置
+     */
+    private long writePosition;
     private final AtomicLong writeIndex = new AtomicLong(0);
+    private final RecordCodec writeCodec = new RecordCodec();
+    private final int checkpointInterval;
+    private final Map<String, ConsumerGroup> groups = new ConcurrentHashMap<>();
+    /**
+     * 还没有删除的最小段文件
+     */
+    private long retainedFileIndex;
+    /**
+     * 所有消费组都读完之后额外保留的段文件数量，保留的段文件可以seek回去重新读取
+     */
+    private volatile int retainSegments = 0;
+    private final AtomicLong replayCounter = new AtomicLong(0);
+    /**
+     * force()刷盘的次数，切换段文件和关闭时的force不计入
+     */
+    private final AtomicLong forceCount = new AtomicLong(0);
 
     /**
      * @param filePrefix 文件前缀
      * @param fileSize   文件消息数量
      */
     public CircleFileQueue(String filePrefix, int fileSize) {
+        this(filePrefix, fileSize, StorageMode.STREAM, 0);
+    }
+
+    /**
+     * @param filePrefix   文件前缀
+     * @param fileSize     文件消息数量
+     * @param storageMode  段文件的读写方式
+     * @param segmentBytes MAPPED模式下每个段文件预分配的字节数，不够时翻倍
+     */
+    public CircleFileQueue(String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes) {
+        this(filePrefix, fileSize, storageMode, segmentBytes, false);
+    }
+
+    /**
+     * @param filePrefix    文件前缀
+     * @param fileSize      文件消息数量
+     * @param storageMode   段文件的读写方式
+     * @param segmentBytes  MAPPED模式下每个段文件预分配的字节数，不够时翻倍
+     * @param forceOnRotate 切换段文件时是否先把旧的段文件刷到磁盘，需要持久化时打开，否则旧段文件的末尾不会被force覆盖
+     */
+    public CircleFileQueue(String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes, boolean forceOnRotate) {
+        this(filePrefix, fileSize, storageMode, segmentBytes, forceOnRotate, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * 打开时从已有的段文件和检查点恢复，不会删除没有消费的消息
+     *
+     * @param filePrefix         文件前缀
+     * @param fileSize           文件消息数量
+     * @param storageMode        段文件的读写方式
+     * @param segmentBytes       MAPPED模式下每个段文件预分配的字节数，不够时翻倍
+     * @param forceOnRotate      切换段文件时是否先把旧的段文件刷到磁盘，需要持久化时打开，否则旧段文件的末尾不会被force覆盖
+     * @param checkpointInterval 每读取多少条消息保存一次检查点，重启后最多重复读取这么多条消息
+     */
+    public CircleFileQueue(String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes,
+                           boolean forceOnRotate, int checkpointInterval) {
+        this(DEFAULT_DATA_PATH, filePrefix, fileSize, storageMode, segmentBytes, forceOnRotate, checkpointInterval);
+    }
+
+    /**
+     * 打开时从已有的段文件和检查点恢复，不会删除没有消费的消息
+     *
+     * @param dataPath           数据目录，不存在时创建，同一个目录下的文件前缀不能相同
+     * @param filePrefix         文件前缀
+     * @param fileSize           文件消息数量
+     * @param storageMode        段文件的读写方式
+     * @param segmentBytes       MAPPED模式下每个段文件预分配的字节数，不够时翻倍
+     * @param forceOnRotate      切换段文件时是否先把旧的段文件刷到磁盘，需要持久化时打开，否则旧段文件的末尾不会被force覆盖
+     * @param checkpointInterval 每读取多少条消息保存一次检查点，重启后最多重复读取这么多条消息
+     */
+    public CircleFileQueue(String dataPath, String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes,
+                           boolean forceOnRotate, int checkpointInterval) {
+        if (storageMode == StorageMode.MAPPED && segmentBytes < 1) {
+            throw new IllegalArgumentException("segmentBytes must not be less than 1 in mapped mode");
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("checkpointInterval must not be less than 1");
+        }
+        this.dataPath = dataPath;
         this.filePrefix = filePrefix;
         this.fileSize = fileSize;
+        this.storageMode = storageMode;
+        this.segmentBytes = segmentBytes;
+        this.forceOnRotate = forceOnRotate;
+        this.checkpointInterval = checkpointInterval;
 
         File dir = new File(dataPath);
-        if (dir.exists() && Objects.nonNull(dir.listFiles())) {
-            for (File f : Objects.requireNonNull(dir.listFiles())) {
-                if (!f.delete()) {
-                    throw new RuntimeException("Data dir delete fail : " + dir.getAbsolutePath());
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new RuntimeException("Data dir create fail : " + dir.getAbsolutePath());
+        }
+        try {
+            recover(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("Recover fail : " + dir.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * 只扫描最后一个段文件恢复写下标，各个消费组的读下标从检查点恢复，恢复时间和数据量无关
+     */
+    private void recover(File dir) throws IOException {
+        long first = Long.MAX_VALUE;
+        long last = -1;
+        List<String> groupNames = new ArrayList<>();
+        for (File f : Objects.requireNonNull(dir.listFiles())) {
+            long index = parseFileIndex(f.getName());
+            if (index >= 0) {
+                first = Math.min(first, index);
+                last = Math.max(last, index);
+            }
+            String group = parseGroupName(f.getName());
+            if (Objects.nonNull(group)) {
+                groupNames.add(group);
+            }
+        }
+
+        long validEnd = 0;
+        if (last < 0) {
+            first = 0;
+        } else {
+            // 最后一个段文件的末尾可能只写了一半，截掉残缺的记录
+            // 最后一个段文件的索引可能和数据不一致，扫描时重建
+            long count = 0;
+            SegmentIndex rebuilt = new SegmentIndex(getIndexPath(last));
+            try (SegmentReader scan = new StreamSegmentReader(getFilePath(last))) {
+                QueueRecord record;
+                while (count < fileSize && Objects.nonNull(record = writeCodec.decode(scan, last * fileSize + count))) {
+                    rebuilt.onRecord((int) count, validEnd);
+                    count++;
+                    validEnd += RecordCodec.recordSize(record.getPayload().length);
+                }
+            }
+            try (RandomAccessFile file = new RandomAccessFile(getFilePath(last), "rw")) {
+                if (file.length() > validEnd) {
+                    log.warn("Truncate torn tail of write file {} from {} to {}", getFilePath(last), file.length(), validEnd);
+                    file.setLength(validEnd);
                 }
             }
+            this.writeIndex.set(last * fileSize + count);
+            this.writeFileIndex = last;
+            if (count < fileSize) {
+                this.writer = openWriter(last, validEnd);
+                this.segmentIndex = rebuilt;
+                this.writePosition = validEnd;
+            } else {
+                rebuilt.close();
+            }
+        }
+        this.retainedFileIndex = first;
+
+        for (String group : groupNames) {
+            long index = first * fileSize;
+            long position = 0;
+            long[] saved = new OffsetCheckpoint(getCheckpointPath(group)).load();
+            if (Objects.nonNull(saved) && saved[0] >= index) {
+                index = saved[0];
+                position = saved[1];
+            }
+            if (index > this.writeIndex.get()) {
+                // 检查点之后的消息没有落盘
+                index = this.writeIndex.get();
+                position = index / fileSize == last ? validEnd : 0;
+            }
+            this.groups.put(group, new ConsumerGroup(this, group, index, position, true));
+            log.info("Recover {} group {} from read index {} to write index {}", filePrefix, group, index, this.writeIndex.get());
         }
-        if (dir.exists() && !dir.delete()) {
-            throw new RuntimeException("Data dir delete fail : " + dir.getAbsolutePath());
+        // 所有消费组都已经读完的段文件在第一次切换段文件时才删除，构造之后设置的保留数量也会生效
+    }
+
+    /**
+     * @return 检查点文件对应的消费组，不是检查点文件时返回null
+     */
+    private String parseGroupName(String name) {
+        String prefix = filePrefix + CHECKPOINT_INFIX;
+        if (!name.startsWith(prefix) || name.length() == prefix.length() || name.endsWith(".tmp")) {
+            return null;
         }
-        if (!dir.mkdirs()) {
-            throw new RuntimeException("Data dir create fail : " + dir.getAbsolutePath());
+        return name.substring(prefix.length());
+    }
+
+    /**
+     * @return 段文件的下标，不是段文件时返回-1
+     */
+    private long parseFileIndex(String name) {
+        if (!name.startsWith(filePrefix) || name.length() == filePrefix.length()) {
+            return -1;
         }
+        for (int i = filePrefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return -1;
+            }
+        }
+        return Long.parseLong(name.substring(filePrefix.length()));
     }
 
-    private String getFilePath(long index) {
+    String getFilePath(long index) {
         return dataPath + "/" + filePrefix + index;
     }
 
+    String getIndexPath(long index) {
+        return getFilePath(index) + SegmentIndex.SUFFIX;
+    }
+
+    String getCheckpointPath(String group) {
+        return dataPath + "/" + filePrefix + CHECKPOINT_INFIX + group;
+    }
+
+    /**
+     * 查找段文件中不超过指定序号的最后一个索引项，调用方要先占住段文件，保证它不会被删除
+     *
+     * @param fileIndex 段文件下标
+     * @param record    记录在段文件中的序号
+     * @return {记录序号, 字节位置}，索引文件不存在时返回{0, 0}
+     * @throws IOException 映射索引文件失败
+     */
+    int[] lookupIndex(long fileIndex, int record) throws IOException {
+        final String path = getIndexPath(fileIndex);
+        if ((fileIndex + 1) * fileSize > this.writeIndex.get()) {
+            // 正在写入的段文件，写线程切换段文件之后旧的映射仍然有效
+            SegmentIndex live = this.segmentIndex;
+            if (Objects.nonNull(live) && live.getPath().equals(path)) {
+                return live.lookup(record);
+            }
+            SegmentIndex index = SegmentIndex.openReadOnly(path);
+            return Objects.isNull(index) ? new int[]{0, 0} : index.lookup(record);
+        }
+        SegmentIndex sealed = sealedIndexes.get(fileIndex);
+        if (Objects.isNull(sealed)) {
+            sealed = SegmentIndex.openReadOnly(path);
+            if (Objects.isNull(sealed)) {
+                return new int[]{0, 0};
+            }
+            SegmentIndex previous = sealedIndexes.putIfAbsent(fileIndex, sealed);
+            if (Objects.nonNull(previous)) {
+                sealed = previous;
+            }
+        }
+        return sealed.lookup(record);
+    }
+
+    int getFileSize() {
+        return fileSize;
+    }
+
+    int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    long getWriteIndex() {
+        return writeIndex.get();
+    }
+
+    private SegmentWriter openWriter(long index, long position) throws IOException {
+        if (storageMode == StorageMode.MAPPED) {
+            return new MappedSegmentWriter(getFilePath(index), segmentBytes, (int) position);
+        }
+        // 追加写入，恢复时文件已经截断到position
+        return new StreamSegmentWriter(getFilePath(index));
+    }
+
+    SegmentReader openReader(long index, long position) throws IOException {
+        if (storageMode == StorageMode.MAPPED) {
+            return new MappedSegmentReader(getFilePath(index), (int) position);
+        }
+        return new StreamSegmentReader(getFilePath(index), position);
+    }
+
     public void putMessage(String message) throws IOException {
-        long fileIndex = this.writeIndex.get() / fileSize;
-        if (fileIndex != this.writeFileIndex) {
-            // close the old output stream
-            if (Objects.nonNull(this.outputStream)) {
-                FileOutputStream toClose = this.outputStream;
-                this.outputStream = null;
-                toClose.close();
+        putMessage(ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)), 0);
+    }
+
+    public void putMessage(byte[] payload) throws IOException {
+        putMessage(ByteBuffer.wrap(payload), 0);
+    }
+
+    /**
+     * 写入一条记录，只能由写线程调用
+     * 写入失败时放弃当前段文件，写下标跳到下一个段文件的开头，读取方读到残缺的记录后也会跳到下一个段文件
+     *
+     * @param payload 内容，写入position到limit之间的字节，不改变position
+     * @param flags   调用方的标记，0到RecordCodec.USER_FLAGS_MASK
+     * @throws IOException 写入失败
+     */
+    public void putMessage(ByteBuffer payload, int flags) throws IOException {
+        putMessages(Collections.singletonList(payload), flags);
+    }
+
+    /**
+     * 写入一批记录，只能由写线程调用
+     * 同一个段文件中的记录编码到一块连续的缓冲区，一次写入，缓冲区超过MAX_BATCH_BYTES时分成多次写入
+     *
+     * @param payloads 内容，写入position到limit之间的字节，不改变position
+     * @param flags    调用方的标记，0到RecordCodec.USER_FLAGS_MASK
+     * @throws IOException 写入失败
+     */
+    public void putMessages(List<ByteBuffer> payloads, int flags) throws IOException {
+        // 先检查所有记录，编码到一半失败会让索引和数据不一致
+        for (ByteBuffer payload : payloads) {
+            RecordCodec.check(payload.remaining(), flags);
+        }
+        int i = 0;
+        while (i < payloads.size()) {
+            long index = this.writeIndex.get();
+            long fileIndex = index / fileSize;
+            if (fileIndex != this.writeFileIndex) {
+                // close the old writer
+                closeWriter();
+                this.writeFileIndex = fileIndex;
+            }
+            int record = (int) (index % fileSize);
+            // 一次写入的记录不跨段文件
+            int end = (int) Math.min(payloads.size(), i + (long) (fileSize - record));
+            int first = i;
+            try {
+                if (Objects.isNull(this.writer)) {
+                    this.writer = openWriter(this.writeFileIndex, 0);
+                    this.segmentIndex = new SegmentIndex(getIndexPath(this.writeFileIndex));
+                    this.writePosition = 0;
+                }
+                writeCodec.begin();
+                for (; i < end && (i == first || writeCodec.pending() < MAX_BATCH_BYTES); i++) {
+                    this.segmentIndex.onRecord(record + i - first, this.writePosition + writeCodec.pending());
+                    writeCodec.append(payloads.get(i), flags);
+                }
+                // 记录头和内容合并为一次写入
+                ByteBuffer buffer = writeCodec.finish();
+                int bytes = buffer.remaining();
+                this.writer.write(buffer);
+                this.writePosition += bytes;
+            } catch (IOException e) {
+                abandonWriteFile();
+                throw e;
             }
-            this.writeFileIndex = fileIndex;
+            this.writeIndex.addAndGet(i - first);
+
+            // unlock
+            wakeUpGroups();
+        }
+    }
+
+    private void wakeUpGroups() {
+        for (ConsumerGroup group : groups.values()) {
+            group.wakeUp();
         }
+    }
 
-        if (Objects.isNull(this.outputStream)) {
-            this.outputStream = new FileOutputStream(getFilePath(this.writeFileIndex));
+    /**
+     * 当前段文件的末尾可能只写了半条记录，不再往后追加
+     */
+    private void abandonWriteFile() {
+        try {
+            if (Objects.nonNull(this.writer)) {
+                this.writer.close();
+            }
+            if (Objects.nonNull(this.segmentIndex)) {
+                this.segmentIndex.close();
+            }
+        } catch (IOException e) {
+            log.error("Close abandoned write file {} fail", getFilePath(writeFileIndex), e);
         }
-        this.outputStream.write(message.length());
-        this.outputStream.write(message.getBytes(StandardCharsets.UTF_8));
-        this.writeIndex.incrementAndGet();
+        this.writer = null;
+        this.segmentIndex = null;
+        this.writeIndex.set((writeFileIndex + 1) * fileSize);
+        wakeUpGroups();
+    }
 
-        // unlock
-        if (Objects.nonNull(this.readThread)) {
-            LockSupport.unpark(this.readThread);
+    /**
+     * 把当前段文件已经写入的消息刷到磁盘，只能由写线程调用
+     *
+     * @throws IOException 刷盘失败
+     */
+    public void force() throws IOException {
+        if (Objects.nonNull(this.writer)) {
+            this.writer.force();
+            forceCount.incrementAndGet();
         }
     }
 
-    public String takeMessage() throws IOException {
-        int retry = 10;
-        for (int i = 0; this.readIndex.get() == this.writeIndex.get(); i++, i %= retry) {
-            if (i == retry - 1) {
-                this.readThread = Thread.currentThread();
-                LockSupport.park();
-                this.readThread = null;
+    /**
+     * @return 调用force刷盘的次数
+     */
+    public long getForceCount() {
+        return forceCount.get();
+    }
+
+    /**
+     * 关闭当前的段文件，只能由写线程在最后一次写入之后调用
+     *
+     * @throws IOException 关闭失败
+     */
+    public void closeWriter() throws IOException {
+        if (Objects.nonNull(this.writer)) {
+            SegmentWriter toClose = this.writer;
+            this.writer = null;
+            if (forceOnRotate) {
+                toClose.force();
             }
+            toClose.close();
         }
-        long fileIndex = this.readIndex.get() / fileSize;
-        if (fileIndex != this.readFileIndex) {
-            // close the old input stream
-            if (Objects.nonNull(this.inputStream)) {
-                FileInputStream toClose = this.inputStream;
-                this.inputStream = null;
-                toClose.close();
+        if (Objects.nonNull(this.segmentIndex)) {
+            SegmentIndex toClose = this.segmentIndex;
+            this.segmentIndex = null;
+            if (forceOnRotate) {
+                toClose.force();
             }
-            File old = new File(getFilePath(readFileIndex));
-            if (!old.delete()) {
-                log.error("Delete old read file {} fail", old.getAbsolutePath());
+            toClose.close();
+        }
+    }
+
+    /**
+     * 获取消费组，不存在时创建，新的消费组从还没有删除的最早的消息开始读取
+     *
+     * @param name 消费组名称，只能包含字母、数字、下划线和中划线
+     * @return 消费组
+     */
+    public ConsumerGroup consumerGroup(String name) {
+        ConsumerGroup group = groups.get(name);
+        if (Objects.nonNull(group)) {
+            return group;
+        }
+        if (!name.matches("[\\w-]+")) {
+            throw new IllegalArgumentException("Illegal group name : " + name);
+        }
+        synchronized (this) {
+            // 和删除段文件互斥，起始的段文件不会被删除
+            return groups.computeIfAbsent(name, n -> new ConsumerGroup(this, n, retainedFileIndex * fileSize, 0, true));
+        }
+    }
+
+    /**
+     * 删除所有消费组都已经读完的段文件，没有消费组时不删除
+     */
+    synchronized void release() {
+        if (groups.isEmpty()) {
+            return;
+        }
+        // 跳过残缺记录的消费组可能暂时超过写线程，不能删除正在写入的段文件
+        long min = this.writeIndex.get() / fileSize;
+        for (ConsumerGroup group : groups.values()) {
+            min = Math.min(min, group.getReadFileIndex());
+        }
+        for (min -= retainSegments; this.retainedFileIndex < min; this.retainedFileIndex++) {
+            sealedIndexes.remove(this.retainedFileIndex);
+            for (File old : new File[]{new File(getFilePath(this.retainedFileIndex)), new File(getIndexPath(this.retainedFileIndex))}) {
+                if (old.exists() && !old.delete()) {
+                    log.error("Delete old read file {} fail", old.getAbsolutePath());
+                }
             }
-            this.readFileIndex = fileIndex;
         }
+    }
+
+    /**
+     * @param retainSegments 所有消费组都读完之后额外保留的段文件数量，默认是0，读完就删除
+     */
+    public void setRetainSegments(int retainSegments) {
+        if (retainSegments < 0) {
+            throw new IllegalArgumentException("retainSegments must not be less than 0");
+        }
+        this.retainSegments = retainSegments;
+    }
+
+    /**
+     * 检查消息还没有被删除，同时把消费组移动到它所在的段文件，和删除段文件互斥
+     *
+     * @param group  消费组
+     * @param offset 消息下标
+     */
+    synchronized void moveGroup(ConsumerGroup group, long offset) {
+        if (offset < this.retainedFileIndex * fileSize || offset > this.writeIndex.get()) {
+            throw new IllegalArgumentException("Offset " + offset + " is out of [" + this.retainedFileIndex * fileSize
+                    + ", " + this.writeIndex.get() + "]");
+        }
+        group.setReadFileIndex(offset / fileSize);
+    }
 
-        if (Objects.isNull(this.inputStream)) {
-            this.inputStream = new FileInputStream(dataPath + "/" + filePrefix + this.readFileIndex);
+    /**
+     * 从指定的消息开始重新读取，返回的消费组不保存检查点，也不影响其他消费组，
+     * 在close之前它所在的段文件不会被删除
+     *
+     * @param offset 消息下标，不能小于还没有删除的最早的消息
+     * @return 临时的消费组
+     * @throws IOException 读取失败
+     */
+    public ConsumerGroup replayFrom(long offset) throws IOException {
+        String name = "#replay-" + replayCounter.incrementAndGet();
+        ConsumerGroup group;
+        synchronized (this) {
+            // 先停在最早的段文件上，seek之前不会有段文件被删除
+            group = new ConsumerGroup(this, name, retainedFileIndex * fileSize, 0, false);
+            groups.put(name, group);
+        }
+        try {
+            group.seek(offset);
+        } catch (IOException | RuntimeException e) {
+            removeGroup(group);
+            throw e;
         }
-        int len = this.inputStream.read();
-        String res = new String(this.inputStream.readNBytes(len), StandardCharsets.UTF_8);
-        this.readIndex.incrementAndGet();
-        return res;
+        return group;
+    }
+
+    void removeGroup(ConsumerGroup group) {
+        groups.remove(group.getName(), group);
+        release();
+    }
+
+    public String takeMessage() throws IOException, InterruptedException {
+        return consumerGroup(DEFAULT_GROUP).takeMessage();
+    }
+
+    public byte[] takeBytes() throws IOException, InterruptedException {
+        return consumerGroup(DEFAULT_GROUP).takeBytes();
+    }
+
+    public QueueRecord takeRecord() throws IOException, InterruptedException {
+        return consumerGroup(DEFAULT_GROUP).takeRecord();
+    }
+
+    /**
+     * 保存默认消费组的读取位置
+     *
+     * @throws IOException 写入检查点失败
+     */
+    public void checkpoint() throws IOException {
+        consumerGroup(DEFAULT_GROUP).checkpoint();
     }
 }
@@ -0,0 +1,329 @@
+package com.cc.wheel.queue.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 消费组，每个消费组有自己的读取位置和检查点，多个消费组按照各自的进度读取同一组段文件
+ * 同一个消费组可以被多个线程共用，每条消息只会被其中一个线程读到
+ * 读取在锁内进行，等待新消息在锁外进行，等待的线程不会挡住checkpoint、seek和close
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Slf4j
+public class ConsumerGroup {
+
+    private final CircleFileQueue queue;
+
+    private final String name;
+
+    private final OffsetCheckpoint checkpoint;
+
+    private final RecordCodec codec = new RecordCodec();
+
+    /**
+     * 下一条要读取的消息下标
+     */
+    private volatile long readIndex;
+
+    /**
+     * 正在读取的段文件，比它小的段文件这个消费组不会再读取
+     */
+    private volatile long readFileIndex;
+
+    /**
+     * 下一条要读取的记录在段文件中的字节位置
+     */
+    private long readPosition;
+
+    private int uncheckpointed;
+
+    private SegmentReader reader;
+
+    /**
+     * 正在等待新消息的线程，写线程写入之后全部唤醒
+     */
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param persistent 是否保存检查点，replayFrom返回的临时消费组不保存
+     */
+    ConsumerGroup(CircleFileQueue queue, String name, long readIndex, long readPosition, boolean persistent) {
+        this.queue = queue;
+        this.name = name;
+        this.checkpoint = persistent ? new OffsetCheckpoint(queue.getCheckpointPath(name)) : null;
+        this.readIndex = readIndex;
+        this.readFileIndex = readIndex / queue.getFileSize();
+        // 段文件的第一条消息总是从位置0开始，旧的检查点可能在这里保存了上一个段文件的末尾
+        this.readPosition = readIndex % queue.getFileSize() == 0 ? 0 : readPosition;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getReadIndex() {
+        return readIndex;
+    }
+
+    long getReadFileIndex() {
+        return readFileIndex;
+    }
+
+    void setReadFileIndex(long readFileIndex) {
+        this.readFileIndex = readFileIndex;
+    }
+
+    public String takeMessage() throws IOException, InterruptedException {
+        return takeRecord().getMessage();
+    }
+
+    public byte[] takeBytes() throws IOException, InterruptedException {
+        return takeRecord().getPayload();
+    }
+
+    /**
+     * 读取一条记录，没有记录时等待
+     * 读到残缺或者校验失败的记录时，直接跳到下一个段文件的开头，不再扫描当前段文件剩下的部分
+     *
+     * @return 记录
+     * @throws IOException          读取失败
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public QueueRecord takeRecord() throws IOException, InterruptedException {
+        while (true) {
+            awaitMessage();
+            synchronized (this) {
+                // 等待期间可能被其他线程读走或者被seek移动，没有读到时重新等待
+                QueueRecord record = read();
+                if (Objects.nonNull(record)) {
+                    return record;
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待至少一条记录，然后读取当前已经写入的记录，整批只加一次锁
+     *
+     * @param records 读到的记录
+     * @param max     最多读取的数量
+     * @return 实际读取的数量
+     * @throws IOException          读取失败
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public int drainTo(Collection<? super QueueRecord> records, int max) throws IOException, InterruptedException {
+        if (max < 1) {
+            return 0;
+        }
+        while (true) {
+            awaitMessage();
+            synchronized (this) {
+                int count = 0;
+                QueueRecord record;
+                while (count < max && Objects.nonNull(record = read())) {
+                    records.add(record);
+                    count++;
+                }
+                if (count > 0) {
+                    return count;
+                }
+            }
+        }
+    }
+
+    /**
+     * 调用时持有锁
+     *
+     * @return 记录，没有记录时返回null
+     */
+    private QueueRecord read() throws IOException {
+        final int fileSize = queue.getFileSize();
+        while (true) {
+            if (this.readIndex >= queue.getWriteIndex()) {
+                return null;
+            }
+            long fileIndex = this.readIndex / fileSize;
+            if (fileIndex != this.readFileIndex) {
+                // close the old reader
+                if (Objects.nonNull(this.reader)) {
+                    SegmentReader toClose = this.reader;
+                    this.reader = null;
+                    toClose.close();
+                }
+                this.readFileIndex = fileIndex;
+                this.readPosition = 0;
+                // 先保存检查点再释放旧的段文件，检查点不会指向已经删除的段文件
+                saveCheckpoint();
+                queue.release();
+            }
+
+            QueueRecord record = null;
+            try {
+                if (Objects.isNull(this.reader)) {
+                    this.reader = queue.openReader(this.readFileIndex, this.readPosition);
+                }
+                record = codec.decode(this.reader, this.readIndex);
+            } catch (FileNotFoundException e) {
+                // 写线程打开段文件就失败了，整个段文件都被放弃
+                log.warn("Read file {} not found", queue.getFilePath(fileIndex));
+            }
+            if (Objects.nonNull(record)) {
+                this.readIndex++;
+                this.readPosition += RecordCodec.recordSize(record.getPayload().length);
+                if (++this.uncheckpointed >= queue.getCheckpointInterval()) {
+                    saveCheckpoint();
+                }
+                return record;
+            }
+            long next = (fileIndex + 1) * fileSize;
+            log.warn("Torn record in read file {}, group {} skip {} messages", queue.getFilePath(fileIndex), name, next - this.readIndex);
+            this.readIndex = next;
+        }
+    }
+
+    /**
+     * 保存当前的读取位置
+     *
+     * @throws IOException 写入检查点失败
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (Objects.isNull(checkpoint)) {
+            return;
+        }
+        final long index = this.readIndex;
+        // 刚读完一个段文件时readPosition还是旧段文件的末尾，下一条消息在新段文件的开头
+        checkpoint.store(index, index % queue.getFileSize() == 0 ? 0 : this.readPosition);
+        this.uncheckpointed = 0;
+    }
+
+    /**
+     * 移动到指定的消息，之后从这条消息开始读取
+     * 通过段文件的稀疏索引定位，最多读取SegmentIndex.INTERVAL_RECORDS条记录
+     *
+     * 目标段文件中offset之前的记录损坏时停在损坏的记录上，和读取时一样之后会跳到下一个段文件
+     *
+     * @param offset 消息下标，不能小于还没有删除的最早的消息，也不能大于写下标
+     * @throws IOException 读取失败
+     */
+    public synchronized void seek(long offset) throws IOException {
+        final int fileSize = queue.getFileSize();
+        final long fileIndex = offset / fileSize;
+        final int record = (int) (offset % fileSize);
+        if (Objects.nonNull(this.reader)) {
+            SegmentReader toClose = this.reader;
+            this.reader = null;
+            toClose.close();
+        }
+        // 先占住目标段文件，之后它不会被删除
+        queue.moveGroup(this, offset);
+        int[] entry = queue.lookupIndex(fileIndex, record);
+        long index = fileIndex * fileSize + entry[0];
+        long position = entry[1];
+        try {
+            if (index < offset) {
+                this.reader = queue.openReader(fileIndex, position);
+            }
+            for (; index < offset; index++) {
+                QueueRecord skipped = codec.decode(this.reader, index);
+                if (Objects.isNull(skipped)) {
+                    // 下次读取时从损坏的记录重新打开
+                    log.warn("Torn record in read file {}, group {} seek to {} instead of {}", queue.getFilePath(fileIndex), name, index, offset);
+                    this.reader.close();
+                    this.reader = null;
+                    break;
+                }
+                position += RecordCodec.recordSize(skipped.getPayload().length);
+            }
+        } catch (FileNotFoundException e) {
+            // 整个段文件都被放弃，读取时会跳过
+            log.warn("Read file {} not found", queue.getFilePath(fileIndex));
+        } catch (IOException e) {
+            // reader停在不确定的位置，下次读取时重新打开
+            if (Objects.nonNull(this.reader)) {
+                SegmentReader toClose = this.reader;
+                this.reader = null;
+                toClose.close();
+            }
+            throw e;
+        } finally {
+            // 下标和字节位置总是一起更新
+            this.readIndex = index;
+            this.readPosition = position;
+        }
+        saveCheckpoint();
+        // 向后移动时释放已经越过的段文件
+        queue.release();
+        // 向前移动时已经读完的消息可以重新读取，唤醒正在等待的线程
+        wakeUp();
+    }
+
+    /**
+     * 不再读取，这个消费组不再阻止删除段文件，之后可以通过consumerGroup重新获取
+     *
+     * @throws IOException 关闭失败
+     */
+    public synchronized void close() throws IOException {
+        saveCheckpoint();
+        queue.removeGroup(this);
+        if (Objects.nonNull(this.reader)) {
+            SegmentReader toClose = this.reader;
+            this.reader = null;
+            toClose.close();
+        }
+    }
+
+    private void saveCheckpoint() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            // 检查点只影响重启后重复读取的数量，不影响这次读取
+            log.error("Save checkpoint of group {} fail", name, e);
+        }
+    }
+
+    /**
+     * 不持有锁，等待到有可以读取的消息
+     */
+    private void awaitMessage() throws InterruptedException {
+        int retry = 10;
+        // 跳过残缺记录后读下标可能暂时超过写下标
+        for (int i = 0; this.readIndex >= queue.getWriteIndex(); i++, i %= retry) {
+            if (i == retry - 1) {
+                final Thread thread = Thread.currentThread();
+                waiters.add(thread);
+                try {
+                    // 登记之后再检查一次，避免错过写线程的唤醒
+                    if (this.readIndex >= queue.getWriteIndex()) {
+                        LockSupport.park(this);
+                    }
+                } finally {
+                    waiters.remove(thread);
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+
+    /**
+     * 写线程写入新的消息之后调用
+     */
+    void wakeUp() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        for (Thread thread : waiters) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
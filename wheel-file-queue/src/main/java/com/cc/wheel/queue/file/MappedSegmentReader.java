@@ -0,0 +1,62 @@
+package com.cc.wheel.queue.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于MappedByteBuffer的段文件读取，和写入方映射同一个文件，共享同一份页缓存
+ * 写入方扩大文件之后，读取方在读到映射的末尾时按照文件当前的大小重新映射
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class MappedSegmentReader implements SegmentReader {
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    public MappedSegmentReader(String path) throws IOException {
+        this(path, 0);
+    }
+
+    /**
+     * @param path     文件路径
+     * @param position 开始读取的字节位置
+     * @throws IOException 打开或者映射失败
+     */
+    public MappedSegmentReader(String path, int position) throws IOException {
+        this.file = new RandomAccessFile(path, "r");
+        this.channel = file.getChannel();
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        this.buffer.position(position);
+    }
+
+    @Override
+    public void read(ByteBuffer dst) throws IOException {
+        if (dst.remaining() > buffer.remaining()) {
+            final int position = buffer.position();
+            final long size = channel.size();
+            if (position + (long) dst.remaining() > size) {
+                throw new EOFException("Segment ends before the record");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.position(position);
+        }
+        final int limit = buffer.limit();
+        buffer.limit(buffer.position() + dst.remaining());
+        dst.put(buffer);
+        buffer.limit(limit);
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.cc.wheel.queue.file;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于MappedByteBuffer的段文件写入，打开时把文件预分配到initialBytes并整体映射，
+ * 追加只是内存复制，空间不够时文件大小翻倍后重新映射
+ * 预分配的部分是0，读取方根据写下标判断哪些字节已经写入
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class MappedSegmentWriter implements SegmentWriter {
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    /**
+     * @param path         文件路径
+     * @param initialBytes 预分配的字节数
+     * @throws IOException 打开或者映射失败
+     */
+    public MappedSegmentWriter(String path, int initialBytes) throws IOException {
+        this(path, initialBytes, 0);
+    }
+
+    /**
+     * @param path         文件路径
+     * @param initialBytes 预分配的字节数
+     * @param position     开始追加的字节位置，恢复时是最后一条完整记录的末尾
+     * @throws IOException 打开或者映射失败
+     */
+    public MappedSegmentWriter(String path, int initialBytes, int position) throws IOException {
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = file.getChannel();
+        final long size = Math.max(file.length(), initialBytes);
+        file.setLength(size);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.buffer.position(position);
+    }
+
+    @Override
+    public void write(ByteBuffer src) throws IOException {
+        if (src.remaining() > buffer.remaining()) {
+            grow(buffer.position() + (long) src.remaining());
+        }
+        buffer.put(src);
+    }
+
+    private void grow(long required) throws IOException {
+        long size = buffer.capacity();
+        while (size < required) {
+            size <<= 1;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Segment is larger than 2GB, use a smaller file size");
+        }
+        final int position = buffer.position();
+        file.setLength(size);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.position(position);
+    }
+
+    @Override
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // 映射在buffer被回收之前一直有效，关闭文件不影响读取方
+        file.close();
+    }
+}
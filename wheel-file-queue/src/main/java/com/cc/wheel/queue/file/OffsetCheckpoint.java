@@ -0,0 +1,86 @@
+package com.cc.wheel.queue.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * 读取位置的检查点文件，保存消息下标和这条消息在段文件中的字节位置
+ * 先写临时文件再原子替换，任何时候读到的都是一份完整的检查点
+ * <pre>
+ * +--------------+-----------------+----------------+
+ * | index(8byte) | position(8byte) | crc32c(4 byte) |
+ * +--------------+-----------------+----------------+
+ * </pre>
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class OffsetCheckpoint {
+
+    private static final int BYTES = 8 + 8 + 4;
+
+    private final Path path;
+
+    private final Path tmpPath;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BYTES);
+
+    private final CRC32C crc = new CRC32C();
+
+    public OffsetCheckpoint(String path) {
+        this.path = Paths.get(path);
+        this.tmpPath = Paths.get(path + ".tmp");
+    }
+
+    /**
+     * @return {index, position}，文件不存在或者损坏时返回null
+     * @throws IOException 读取失败
+     */
+    public long[] load() throws IOException {
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满整个检查点
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (buffer.hasRemaining()) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.array(), 0, 16);
+        if ((int) crc.getValue() != buffer.getInt(16)) {
+            return null;
+        }
+        return new long[]{buffer.getLong(0), buffer.getLong(8)};
+    }
+
+    /**
+     * @param index    下一条要读取的消息下标
+     * @param position 这条消息在段文件中的字节位置
+     * @throws IOException 写入失败
+     */
+    public void store(long index, long position) throws IOException {
+        buffer.clear();
+        buffer.putLong(index).putLong(position);
+        crc.reset();
+        crc.update(buffer.array(), 0, 16);
+        buffer.putInt((int) crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,36 @@
+package com.cc.wheel.queue.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 从文件中读出的一条记录
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+@Getter
+@AllArgsConstructor
+public class QueueRecord {
+
+    /**
+     * 消息下标，可以用来seek
+     */
+    private final long offset;
+
+    /**
+     * 写入时指定的标记，0到RecordCodec.USER_FLAGS_MASK
+     */
+    private final int flags;
+
+    private final byte[] payload;
+
+    /**
+     * @return 按UTF-8解码的内容
+     */
+    public String getMessage() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
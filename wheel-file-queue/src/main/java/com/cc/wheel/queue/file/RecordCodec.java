@@ -0,0 +1,195 @@
+package com.cc.wheel.queue.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * 文件中的记录格式，不是线程安全的，写线程和读线程各用一个
+ * <pre>
+ * +-------+----------------+----------------+---------+
+ * | flags | length(varint) | crc32c(4 byte) | payload |
+ * +-------+----------------+----------------+---------+
+ * </pre>
+ * <ul>
+ *     <li>flags的最高位总是1，预分配的0或者没有写完的记录可以直接识别</li>
+ *     <li>length是payload的字节数，无符号LEB128编码，小于128字节的记录只需要一个字节</li>
+ *     <li>crc32c覆盖flags、length和payload</li>
+ * </ul>
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class RecordCodec {
+
+    /**
+     * 记录存在的标记
+     */
+    public static final int FLAG_PRESENT = 0x80;
+
+    /**
+     * 调用方可以使用的标记位
+     */
+    public static final int USER_FLAGS_MASK = 0x7F;
+
+    /**
+     * 单条记录的最大长度，读取时超过这个长度的记录被当作损坏
+     */
+    public static final int MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+
+    private static final int MAX_HEADER_BYTES = 1 + 5 + 4;
+
+    private final CRC32C crc = new CRC32C();
+
+    private final ByteBuffer single = ByteBuffer.allocate(1);
+
+    private final ByteBuffer checksum = ByteBuffer.allocate(4);
+
+    private ByteBuffer encodeBuffer = ByteBuffer.allocate(256);
+
+    /**
+     * @param payload 内容，读取position到limit之间的字节，不改变position
+     * @param flags   调用方的标记
+     * @return 编码后的记录，在下一次编码之前有效
+     */
+    public ByteBuffer encode(ByteBuffer payload, int flags) {
+        begin();
+        append(payload, flags);
+        return finish();
+    }
+
+    /**
+     * 开始把多条记录编码到同一块连续的缓冲区
+     */
+    public void begin() {
+        encodeBuffer.clear();
+    }
+
+    /**
+     * 在缓冲区末尾追加一条记录，空间不够时扩大缓冲区，调用方通过pending控制缓冲区的大小
+     *
+     * @param payload 内容，读取position到limit之间的字节，不改变position
+     * @param flags   调用方的标记
+     */
+    public void append(ByteBuffer payload, int flags) {
+        final int length = payload.remaining();
+        check(length, flags);
+        if (encodeBuffer.remaining() < MAX_HEADER_BYTES + length) {
+            final int required = encodeBuffer.position() + MAX_HEADER_BYTES + length;
+            final ByteBuffer grown = ByteBuffer.allocate(Integer.highestOneBit(required) << 1);
+            encodeBuffer.flip();
+            encodeBuffer = grown.put(encodeBuffer);
+        }
+        final ByteBuffer buffer = encodeBuffer;
+        final int start = buffer.position();
+        buffer.put((byte) (FLAG_PRESENT | flags));
+        putVarint(buffer, length);
+        final int checksumPosition = buffer.position();
+        buffer.position(checksumPosition + 4);
+        buffer.put(payload.duplicate());
+
+        crc.reset();
+        crc.update(buffer.array(), start, checksumPosition - start);
+        crc.update(buffer.array(), checksumPosition + 4, length);
+        buffer.putInt(checksumPosition, (int) crc.getValue());
+    }
+
+    /**
+     * @return 已经编码到缓冲区的字节数
+     */
+    public int pending() {
+        return encodeBuffer.position();
+    }
+
+    /**
+     * @return 编码后的记录，在下一次编码之前有效
+     */
+    public ByteBuffer finish() {
+        return encodeBuffer.flip();
+    }
+
+    /**
+     * @param length 内容的字节数
+     * @param flags  调用方的标记
+     */
+    public static void check(int length, int flags) {
+        if ((flags & ~USER_FLAGS_MASK) != 0) {
+            throw new IllegalArgumentException("flags must be in [0, " + USER_FLAGS_MASK + "]");
+        }
+        if (length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("payload must not be larger than " + MAX_PAYLOAD_BYTES);
+        }
+    }
+
+    /**
+     * 读取一条记录
+     *
+     * @param reader 段文件
+     * @param offset 这条记录的消息下标
+     * @return 记录，遇到没有写完或者损坏的记录时返回null，这个位置之后的内容都不可信
+     * @throws IOException 读取失败
+     */
+    public QueueRecord decode(SegmentReader reader, long offset) throws IOException {
+        try {
+            crc.reset();
+            final int flags = readByte(reader);
+            if ((flags & FLAG_PRESENT) == 0) {
+                return null;
+            }
+            crc.update(flags);
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 28) {
+                    return null;
+                }
+                final int b = readByte(reader);
+                crc.update(b);
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                return null;
+            }
+            checksum.clear();
+            reader.read(checksum);
+            final byte[] payload = new byte[length];
+            reader.read(ByteBuffer.wrap(payload));
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum.getInt(0)) {
+                return null;
+            }
+            return new QueueRecord(offset, flags & USER_FLAGS_MASK, payload);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private int readByte(SegmentReader reader) throws IOException {
+        single.clear();
+        reader.read(single);
+        return single.get(0) & 0xFF;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @param payload 内容
+     * @return 编码后记录的字节数
+     */
+    public static int recordSize(int payload) {
+        return 1 + varintSize(payload) + 4 + payload;
+    }
+
+    private static int varintSize(int value) {
+        return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+    }
+}
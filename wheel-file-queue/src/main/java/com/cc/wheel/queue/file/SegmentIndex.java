@@ -0,0 +1,166 @@
+package com.cc.wheel.queue.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * 段文件的稀疏索引，每隔INTERVAL_RECORDS条记录或者INTERVAL_BYTES字节记录一次记录序号和字节位置
+ * 查找一条消息只需要二分查找索引，再从索引位置最多读取INTERVAL_RECORDS条记录
+ * <pre>
+ * +---------------------+----------------------+
+ * | record(4byte)       | position(4byte)      |
+ * +---------------------+----------------------+
+ * </pre>
+ * 第0条记录固定在位置0，不写入索引，所以record为0的项表示索引结束
+ * 写入方把索引文件映射到内存，空间不够时翻倍；写入方在写入记录之前写入它的索引项，读取方只查找已经写入的记录，不会读到写了一半的索引项
+ * 正在写入的段文件由读取方直接查找写入方的映射，写完的段文件只读映射一次，之后的查找都使用这个映射
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class SegmentIndex implements Closeable {
+
+    public static final String SUFFIX = ".idx";
+
+    public static final int INTERVAL_RECORDS = 64;
+
+    public static final int INTERVAL_BYTES = 32 * 1024;
+
+    private static final int ENTRY_BYTES = 8;
+
+    private static final int INITIAL_BYTES = 4096;
+
+    private final String path;
+
+    /**
+     * 只读的索引没有打开的文件
+     */
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    /**
+     * 扩大时重新映射，读取方每次查找只读取一次
+     */
+    private volatile MappedByteBuffer buffer;
+
+    private int lastRecord = 0;
+
+    private int lastPosition = 0;
+
+    /**
+     * 创建新的索引文件，已有的索引文件被清空
+     *
+     * @param path 索引文件路径
+     * @throws IOException 创建或者映射失败
+     */
+    public SegmentIndex(String path) throws IOException {
+        this.path = path;
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = file.getChannel();
+        file.setLength(0);
+        file.setLength(INITIAL_BYTES);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_BYTES);
+    }
+
+    private SegmentIndex(String path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.file = null;
+        this.channel = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * 只读映射已经写完的索引文件，映射之后关闭文件，映射在对象被回收之前一直有效
+     *
+     * @param path 索引文件路径
+     * @return 只读的索引，索引文件不存在时返回null
+     * @throws IOException 映射失败
+     */
+    public static SegmentIndex openReadOnly(String path) throws IOException {
+        if (!new File(path).exists()) {
+            return null;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            FileChannel channel = file.getChannel();
+            return new SegmentIndex(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 写入方在写入每条记录之前调用，按照间隔决定是否写入索引项
+     *
+     * @param record   记录在段文件中的序号
+     * @param position 记录在段文件中的字节位置，超过2GB之后不再写入索引
+     * @throws IOException 扩大索引文件失败
+     */
+    public void onRecord(int record, long position) throws IOException {
+        if (record == 0 || position > Integer.MAX_VALUE) {
+            return;
+        }
+        if (record - lastRecord < INTERVAL_RECORDS && position - lastPosition < INTERVAL_BYTES) {
+            return;
+        }
+        if (buffer.remaining() < ENTRY_BYTES) {
+            final int size = buffer.capacity() << 1;
+            final int bufferPosition = buffer.position();
+            file.setLength(size);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(bufferPosition);
+        }
+        // 先写位置再写序号，序号不为0的项一定是完整的
+        buffer.putInt(buffer.position() + 4, (int) position);
+        buffer.putInt(buffer.position(), record);
+        buffer.position(buffer.position() + ENTRY_BYTES);
+        lastRecord = record;
+        lastPosition = (int) position;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * 关闭之后映射仍然有效，读取方可以继续查找
+     */
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(file)) {
+            file.close();
+        }
+    }
+
+    /**
+     * 查找不超过指定序号的最后一个索引项，可以和写入方并发调用
+     *
+     * @param record 记录在段文件中的序号
+     * @return {记录序号, 字节位置}
+     */
+    public int[] lookup(int record) {
+        final MappedByteBuffer buffer = this.buffer;
+        int low = 0;
+        int high = buffer.capacity() / ENTRY_BYTES - 1;
+        int[] result = {0, 0};
+        // 有效的索引项按序号递增，后面都是0
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int entryRecord = buffer.getInt(mid * ENTRY_BYTES);
+            if (entryRecord != 0 && entryRecord <= record) {
+                result = new int[]{entryRecord, buffer.getInt(mid * ENTRY_BYTES + 4)};
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cc.wheel.queue.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 段文件的顺序读取，只由读线程使用
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public interface SegmentReader extends Closeable {
+
+    /**
+     * 读取字节直到填满dst，调用方保证这些字节已经写入
+     *
+     * @param dst 目标
+     * @throws IOException 读取失败或者文件提前结束
+     */
+    void read(ByteBuffer dst) throws IOException;
+}
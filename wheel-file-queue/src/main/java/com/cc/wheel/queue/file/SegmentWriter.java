@@ -0,0 +1,29 @@
+package com.cc.wheel.queue.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 段文件的追加写入，只由写线程使用
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public interface SegmentWriter extends Closeable {
+
+    /**
+     * 追加写入src中剩余的全部字节
+     *
+     * @param src 数据
+     * @throws IOException 写入失败
+     */
+    void write(ByteBuffer src) throws IOException;
+
+    /**
+     * 把已经写入的字节刷到磁盘
+     *
+     * @throws IOException 刷盘失败
+     */
+    void force() throws IOException;
+}
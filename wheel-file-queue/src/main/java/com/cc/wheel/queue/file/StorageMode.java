@@ -0,0 +1,20 @@
+package com.cc.wheel.queue.file;
+
+/**
+ * 段文件的读写方式
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public enum StorageMode {
+
+    /**
+     * 通过FileOutputStream/FileInputStream读写，每条消息都是一次系统调用
+     */
+    STREAM,
+
+    /**
+     * 每个段文件预分配并映射为MappedByteBuffer，读写都是内存复制，空间不够时扩大文件重新映射
+     */
+    MAPPED
+}
@@ -0,0 +1,69 @@
+package com.cc.wheel.queue.file;
+
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于FileInputStream的段文件读取，带一个预读缓冲区，逐字节解析记录头时不会每个字节一次系统调用
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class StreamSegmentReader implements SegmentReader {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileInputStream inputStream;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).flip();
+
+    public StreamSegmentReader(String path) throws IOException {
+        this(path, 0);
+    }
+
+    /**
+     * @param path     文件路径
+     * @param position 开始读取的字节位置
+     * @throws IOException 打开失败
+     */
+    public StreamSegmentReader(String path, long position) throws IOException {
+        this.inputStream = new FileInputStream(path);
+        this.channel = inputStream.getChannel();
+        this.channel.position(position);
+    }
+
+    @Override
+    public void read(ByteBuffer dst) throws IOException {
+        while (dst.hasRemaining()) {
+            if (buffer.hasRemaining()) {
+                final int limit = buffer.limit();
+                buffer.limit(buffer.position() + Math.min(buffer.remaining(), dst.remaining()));
+                dst.put(buffer);
+                buffer.limit(limit);
+                continue;
+            }
+            final int read;
+            if (dst.remaining() >= BUFFER_BYTES) {
+                // 大记录直接读到目标里，不经过缓冲区
+                read = channel.read(dst);
+            } else {
+                buffer.clear();
+                read = channel.read(buffer);
+                buffer.flip();
+            }
+            if (read < 0) {
+                throw new EOFException("Segment ends before the record");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
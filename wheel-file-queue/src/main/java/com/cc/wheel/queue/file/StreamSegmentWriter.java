@@ -0,0 +1,41 @@
+package com.cc.wheel.queue.file;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于FileOutputStream的段文件写入
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+public class StreamSegmentWriter implements SegmentWriter {
+
+    private final FileOutputStream outputStream;
+
+    private final FileChannel channel;
+
+    public StreamSegmentWriter(String path) throws IOException {
+        this.outputStream = new FileOutputStream(path, true);
+        this.channel = outputStream.getChannel();
+    }
+
+    @Override
+    public void write(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    @Override
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+}
@@ -1,11 +1,20 @@
 package com.cc.wheel.queue.impl;
 
+import com.cc.wheel.queue.DurabilityPolicy;
 import com.cc.wheel.queue.FileQueue;
 import com.cc.wheel.queue.file.CircleFileQueue;
+import com.cc.wheel.queue.file.QueueRecord;
+import com.cc.wheel.queue.file.StorageMode;
 import com.cc.wheel.queue.message.MessageConsumer;
 import com.cc.wheel.queue.message.MessageProvider;
 import com.cc.wheel.queue.utils.ThreadPoolUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * @author cc
  * @date 2023/9/20
@@ -16,16 +25,58 @@ public class FileQueueImpl implements FileQueue {
 
     private final MessageConsumer consumer;
 
+    private final CircleFileQueue circleFileQueue;
+
     public FileQueueImpl() {
         this("File-Queue-", 128 * 1024);
     }
 
     public FileQueueImpl(String filePrefix, int fileSize) {
-        CircleFileQueue circleFileQueue = new CircleFileQueue(filePrefix, fileSize);
-        provider = new MessageProvider(circleFileQueue);
+        this(new CircleFileQueue(filePrefix, fileSize), DurabilityPolicy.none());
+    }
+
+    /**
+     * @param filePrefix   文件前缀
+     * @param fileSize     文件消息数量
+     * @param storageMode  段文件的读写方式
+     * @param segmentBytes MAPPED模式下每个段文件预分配的字节数
+     */
+    public FileQueueImpl(String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes) {
+        this(filePrefix, fileSize, storageMode, segmentBytes, DurabilityPolicy.none());
+    }
+
+    /**
+     * @param filePrefix       文件前缀
+     * @param fileSize         文件消息数量
+     * @param storageMode      段文件的读写方式
+     * @param segmentBytes     MAPPED模式下每个段文件预分配的字节数
+     * @param durabilityPolicy 持久化策略
+     */
+    public FileQueueImpl(String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes,
+                         DurabilityPolicy durabilityPolicy) {
+        this(CircleFileQueue.DEFAULT_DATA_PATH, filePrefix, fileSize, storageMode, segmentBytes, durabilityPolicy);
+    }
+
+    /**
+     * @param dataPath         数据目录，不存在时创建
+     * @param filePrefix       文件前缀
+     * @param fileSize         文件消息数量
+     * @param storageMode      段文件的读写方式
+     * @param segmentBytes     MAPPED模式下每个段文件预分配的字节数
+     * @param durabilityPolicy 持久化策略
+     */
+    public FileQueueImpl(String dataPath, String filePrefix, int fileSize, StorageMode storageMode, int segmentBytes,
+                         DurabilityPolicy durabilityPolicy) {
+        this(new CircleFileQueue(dataPath, filePrefix, fileSize, storageMode, segmentBytes,
+                durabilityPolicy.getType() != DurabilityPolicy.Type.NONE, CircleFileQueue.DEFAULT_CHECKPOINT_INTERVAL),
+                durabilityPolicy);
+    }
+
+    private FileQueueImpl(CircleFileQueue circleFileQueue, DurabilityPolicy durabilityPolicy) {
+        this.circleFileQueue = circleFileQueue;
+        provider = new MessageProvider(circleFileQueue, durabilityPolicy);
         consumer = new MessageConsumer(circleFileQueue);
         ThreadPoolUtils.INS.execute(provider);
-        ThreadPoolUtils.INS.execute(consumer);
     }
 
     @Override
@@ -33,8 +84,61 @@ public class FileQueueImpl implements FileQueue {
         provider.putMessage(message);
     }
 
+    @Override
+    public void putAll(List<String> messages) throws InterruptedException {
+        provider.putAll(messages);
+    }
+
+    @Override
+    public void put(byte[] payload) throws InterruptedException {
+        provider.putMessage(payload, 0);
+    }
+
+    @Override
+    public void put(ByteBuffer payload, int flags) throws InterruptedException {
+        provider.putMessage(payload, flags);
+    }
+
     @Override
     public String take() throws InterruptedException {
         return consumer.takeMessage();
     }
+
+    @Override
+    public int drainTo(Collection<? super String> messages, int max) throws InterruptedException {
+        return consumer.drainTo(messages, max);
+    }
+
+    @Override
+    public byte[] takeBytes() throws InterruptedException {
+        return consumer.takeRecord().getPayload();
+    }
+
+    @Override
+    public QueueRecord takeRecord() throws InterruptedException {
+        return consumer.takeRecord();
+    }
+
+    @Override
+    public String take(String group) throws InterruptedException {
+        return takeRecord(group).getMessage();
+    }
+
+    @Override
+    public QueueRecord takeRecord(String group) throws InterruptedException {
+        try {
+            return circleFileQueue.consumerGroup(group).takeRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error get message from file", e);
+        }
+    }
+
+    @Override
+    public void seek(String group, long offset) {
+        try {
+            circleFileQueue.consumerGroup(group).seek(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error seek file", e);
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package com.cc.wheel.queue.message;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 一次写入请求，SYNC策略下put在这里等待写线程force完成
+ *
+ * @author cc
+ * @date 2026/10/17
+ */
+class AppendRequest {
+
+    /**
+     * putAll的一批消息是同一个请求，一起写入
+     */
+    private final List<ByteBuffer> payloads;
+
+    private final int flags;
+
+    private boolean done = false;
+
+    private IOException error;
+
+    AppendRequest(List<ByteBuffer> payloads, int flags) {
+        this.payloads = payloads;
+        this.flags = flags;
+    }
+
+    List<ByteBuffer> getPayloads() {
+        return payloads;
+    }
+
+    int getFlags() {
+        return flags;
+    }
+
+    /**
+     * 写线程调用，唤醒等待的put
+     *
+     * @param error 写入或者force失败的原因，成功时为null
+     */
+    synchronized void complete(IOException error) {
+        this.error = error;
+        this.done = true;
+        notifyAll();
+    }
+
+    /**
+     * 等待写线程force完成
+     *
+     * @throws InterruptedException while the thread is interrupted
+     */
+    synchronized void await() throws InterruptedException {
+        while (!done) {
+            wait();
+        }
+        if (error != null) {
+            throw new UncheckedIOException("Message is not persisted", error);
+        }
+    }
+}
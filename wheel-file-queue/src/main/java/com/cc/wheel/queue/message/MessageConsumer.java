@@ -1,22 +1,23 @@
 package com.cc.wheel.queue.message;
 
 import com.cc.wheel.queue.file.CircleFileQueue;
-import lombok.extern.slf4j.Slf4j;
+import com.cc.wheel.queue.file.ConsumerGroup;
+import com.cc.wheel.queue.file.QueueRecord;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
+ * 在调用线程上直接读取默认消费组，没有预读
+ * 消息交给调用方时读下标才前进，检查点不会越过还没有交给调用方的消息
+ *
  * @author cc
  * @date 2023/9/20
  */
-@Slf4j
-public class MessageConsumer implements Runnable {
-
-    /**
-     * 消息阻塞队列
-     */
-    private final BlockingQueue<String> messageQueue = new ArrayBlockingQueue<>(128);
+public class MessageConsumer {
 
     private final CircleFileQueue circleFileQueue;
 
@@ -24,19 +25,40 @@ public class MessageConsumer implements Runnable {
         this.circleFileQueue = circleFileQueue;
     }
 
+    private ConsumerGroup group() {
+        return circleFileQueue.consumerGroup(CircleFileQueue.DEFAULT_GROUP);
+    }
+
     public String takeMessage() throws InterruptedException {
-        return messageQueue.take();
+        return takeRecord().getMessage();
     }
 
+    public QueueRecord takeRecord() throws InterruptedException {
+        try {
+            return group().takeRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error get message from file", e);
+        }
+    }
 
-    @Override
-    public void run() {
-        while(!Thread.interrupted()) {
-            try {
-                messageQueue.put(circleFileQueue.takeMessage());
-            } catch (Exception e) {
-                log.error("Error get message from file", e);
-            }
+    /**
+     * 等待至少一条消息，然后读取最多max条已经写入的消息
+     *
+     * @param messages 读到的消息
+     * @param max      最多读取的数量
+     * @return 实际读取的数量
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public int drainTo(Collection<? super String> messages, int max) throws InterruptedException {
+        List<QueueRecord> records = new ArrayList<>();
+        try {
+            group().drainTo(records, max);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error get message from file", e);
+        }
+        for (QueueRecord record : records) {
+            messages.add(record.getMessage());
         }
+        return records.size();
     }
 }
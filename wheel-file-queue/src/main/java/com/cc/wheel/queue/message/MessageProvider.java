@@ -1,10 +1,21 @@
 package com.cc.wheel.queue.message;
 
+import com.cc.wheel.queue.DurabilityPolicy;
 import com.cc.wheel.queue.file.CircleFileQueue;
+import com.cc.wheel.queue.file.RecordCodec;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author cc
@@ -16,27 +27,222 @@ public class MessageProvider implements Runnable {
     /**
      * 消息阻塞队列
      */
-    private final BlockingQueue<String> messageQueue = new ArrayBlockingQueue<>(128);
+    private final BlockingQueue<AppendRequest> messageQueue = new ArrayBlockingQueue<>(128);
 
     private final CircleFileQueue circleFileQueue;
 
+    private final DurabilityPolicy durabilityPolicy;
+
+    private final Runnable onAppend;
+
+    /**
+     * 写线程一次取出的请求，只由写线程使用
+     */
+    private final List<AppendRequest> batch = new ArrayList<>();
+
+    /**
+     * 一次写入的消息，只由写线程使用
+     */
+    private final List<ByteBuffer> payloads = new ArrayList<>();
+
+    /**
+     * 上次force之后写入的消息数量
+     */
+    private long unsynced = 0;
+
+    private long lastForceNanos = System.nanoTime();
+
+    /**
+     * 正在入队的请求数，关闭时要等它们都入队或者被拒绝，才能保证最后一次写入之后没有遗留的请求
+     */
+    private final AtomicInteger appending = new AtomicInteger(0);
+
+    private volatile boolean closed = false;
+
     public MessageProvider(CircleFileQueue circleFileQueue) {
+        this(circleFileQueue, DurabilityPolicy.none());
+    }
+
+    public MessageProvider(CircleFileQueue circleFileQueue, DurabilityPolicy durabilityPolicy) {
+        this(circleFileQueue, durabilityPolicy, null);
+    }
+
+    /**
+     * @param circleFileQueue  文件队列
+     * @param durabilityPolicy 持久化策略
+     * @param onAppend         每个写入请求入队之后调用，用来通知共享的写线程，可以为null
+     */
+    public MessageProvider(CircleFileQueue circleFileQueue, DurabilityPolicy durabilityPolicy, Runnable onAppend) {
         this.circleFileQueue = circleFileQueue;
+        this.durabilityPolicy = durabilityPolicy;
+        this.onAppend = onAppend;
     }
 
     public void putMessage(String message) throws InterruptedException {
-        this.messageQueue.put(message);
+        putMessage(message.getBytes(StandardCharsets.UTF_8), 0);
+    }
+
+    /**
+     * @param payload 内容，复制position到limit之间的字节，position移动到limit
+     * @param flags   调用方的标记，0到RecordCodec.USER_FLAGS_MASK
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public void putMessage(ByteBuffer payload, int flags) throws InterruptedException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        putMessage(bytes, flags);
+    }
+
+    /**
+     * @param payload 内容，调用方在写入完成之前不能修改
+     * @param flags   调用方的标记，0到RecordCodec.USER_FLAGS_MASK
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public void putMessage(byte[] payload, int flags) throws InterruptedException {
+        RecordCodec.check(payload.length, flags);
+        append(new AppendRequest(Collections.singletonList(ByteBuffer.wrap(payload)), flags));
+    }
+
+    /**
+     * 一批消息作为一个请求入队，写线程把它们编码到一块连续的缓冲区一次写入
+     *
+     * @param messages 消息
+     * @throws InterruptedException while the thread is interrupted
+     */
+    public void putAll(List<String> messages) throws InterruptedException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<ByteBuffer> payloads = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            RecordCodec.check(bytes.length, 0);
+            payloads.add(ByteBuffer.wrap(bytes));
+        }
+        append(new AppendRequest(payloads, 0));
     }
 
+    private void append(AppendRequest request) throws InterruptedException {
+        appending.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Queue is closed");
+            }
+            this.messageQueue.put(request);
+        } finally {
+            appending.decrementAndGet();
+        }
+        if (Objects.nonNull(onAppend)) {
+            onAppend.run();
+        }
+        if (durabilityPolicy.getType() == DurabilityPolicy.Type.SYNC) {
+            request.await();
+        }
+    }
 
     @Override
     public void run() {
-        while(!Thread.interrupted()) {
+        while (!Thread.interrupted()) {
             try {
-                circleFileQueue.putMessage(messageQueue.take());
+                AppendRequest first = nextRequest();
+                if (Objects.nonNull(first)) {
+                    batch.add(first);
+                    // 同时到达的请求合并为一批，一起写入、一起force
+                    messageQueue.drainTo(batch);
+                }
+                writeBatch();
+            } catch (InterruptedException e) {
+                break;
             } catch (Exception e) {
-                log.error("Error get message from file", e);
+                log.error("Error put message to file", e);
+            }
+        }
+    }
+
+    /**
+     * 写入当前已经到达的请求，不等待，多个队列共用写线程时代替run由共享的写线程调用
+     * 没有请求时只检查按时间的force
+     */
+    public void writePending() {
+        messageQueue.drainTo(batch);
+        writeBatch();
+    }
+
+    /**
+     * 写线程调用，之后的写入请求会抛出IllegalStateException，之前已经入队或者正在入队的请求都会写入
+     */
+    public void close() {
+        closed = true;
+        // 入队的线程可能在等待队列的空位，继续写入才能让它们入队
+        while (appending.get() > 0) {
+            writePending();
+            Thread.yield();
+        }
+        writePending();
+    }
+
+    private void writeBatch() {
+        IOException error = null;
+        try {
+            // 标记相同的相邻请求合并为一次写入
+            int flags = 0;
+            for (AppendRequest request : batch) {
+                if (request.getFlags() != flags && !payloads.isEmpty()) {
+                    writePayloads(flags);
+                }
+                flags = request.getFlags();
+                payloads.addAll(request.getPayloads());
             }
+            writePayloads(flags);
+            if (shouldForce()) {
+                circleFileQueue.force();
+                unsynced = 0;
+                lastForceNanos = System.nanoTime();
+            }
+        } catch (IOException e) {
+            log.error("Error put message to file", e);
+            error = e;
+        }
+        for (AppendRequest request : batch) {
+            request.complete(error);
+        }
+        batch.clear();
+        payloads.clear();
+    }
+
+    private void writePayloads(int flags) throws IOException {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        circleFileQueue.putMessages(payloads, flags);
+        unsynced += payloads.size();
+        payloads.clear();
+    }
+
+    /**
+     * 按时间force时，有未落盘的消息就只等待到下一次force的时间
+     */
+    private AppendRequest nextRequest() throws InterruptedException {
+        if (durabilityPolicy.getType() == DurabilityPolicy.Type.EVERY_MILLIS && unsynced > 0) {
+            long waitNanos = lastForceNanos + TimeUnit.MILLISECONDS.toNanos(durabilityPolicy.getValue()) - System.nanoTime();
+            return messageQueue.poll(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+        }
+        return messageQueue.take();
+    }
+
+    private boolean shouldForce() {
+        if (unsynced == 0) {
+            return false;
+        }
+        switch (durabilityPolicy.getType()) {
+            case SYNC:
+                return true;
+            case EVERY_MESSAGES:
+                return unsynced >= durabilityPolicy.getValue();
+            case EVERY_MILLIS:
+                return System.nanoTime() - lastForceNanos >= TimeUnit.MILLISECONDS.toNanos(durabilityPolicy.getValue());
+            default:
+                return false;
         }
     }
 }
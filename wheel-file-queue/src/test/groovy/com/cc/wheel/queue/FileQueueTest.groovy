@@ -1,13 +1,20 @@
 package com.cc.wheel.queue
 
+import com.cc.wheel.queue.file.CircleFileQueue
+import com.cc.wheel.queue.file.StorageMode
 import com.cc.wheel.queue.impl.FileQueueImpl
+import com.cc.wheel.queue.message.MessageConsumer
+import com.cc.wheel.queue.message.MessageProvider
 import groovy.util.logging.Slf4j
 import spock.lang.Specification
 
+import java.nio.ByteBuffer
+import java.nio.file.Files
 import java.util.concurrent.Callable
 import java.util.concurrent.Executor
 import java.util.concurrent.Executors
 import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicLong
 /**
  * @author cc
@@ -16,9 +23,25 @@ import java.util.concurrent.atomic.AtomicLong
 @Slf4j
 class FileQueueTest extends Specification{
 
+    // 队列打开时会恢复已有的数据，每个用例使用自己的临时目录
+    def root = Files.createTempDirectory("file-queue").toFile()
+
+    def cleanup() {
+        root.deleteDir()
+    }
+
+    def open(String prefix, int fileSize, StorageMode mode = StorageMode.STREAM, int segmentBytes = 0,
+             boolean forceOnRotate = false, int checkpointInterval = CircleFileQueue.DEFAULT_CHECKPOINT_INTERVAL) {
+        new CircleFileQueue(root.path, prefix, fileSize, mode, segmentBytes, forceOnRotate, checkpointInterval)
+    }
+
+    def file(String name) {
+        new File(root, name)
+    }
+
     def "test file queue"() {
         given:
-        FileQueue fileQueue = new FileQueueImpl()
+        FileQueue fileQueue = new FileQueueImpl(root.path, "File-Queue-", 128 * 1024, StorageMode.STREAM, 0, DurabilityPolicy.none())
         Executor executor = Executors.newCachedThreadPool()
         def size = 10 * 128 * 1024L
         def res = new AtomicLong(size)
@@ -59,4 +82,390 @@ class FileQueueTest extends Specification{
         res.get() == 0
 
     }
+
+    def "test circle file queue storage mode"() {
+        given:
+        def queue = open("Storage-Test-", 1000, mode, 1024)
+        def size = 100000
+        def wrong = 0
+
+        when:
+        def writer = Thread.start {
+            for (int i = 0; i < size; i++) {
+                queue.putMessage("message-" + i)
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (queue.takeMessage() != "message-" + i) {
+                wrong++
+            }
+        }
+        writer.join()
+
+        then:
+        wrong == 0
+
+        where:
+        mode << [StorageMode.STREAM, StorageMode.MAPPED]
+    }
+
+    def "test durability policy"() {
+        given:
+        def queue = open("Durability-Test-", 1000, StorageMode.STREAM, 0, true)
+        def provider = new MessageProvider(queue, policy)
+        def writer = Thread.start { provider.run() }
+        def producers = 4
+        def size = 2000
+
+        when:
+        def threads = (0..<producers).collect { id ->
+            Thread.start {
+                for (int i = 0; i < size; i++) {
+                    provider.putMessage(id + "-" + i)
+                }
+            }
+        }
+        def received = 0
+        for (int i = 0; i < producers * size; i++) {
+            queue.takeMessage()
+            received++
+        }
+        threads.each { it.join() }
+        writer.interrupt()
+
+        then:
+        received == producers * size
+        (queue.getForceCount() > 0) == forced
+
+        where:
+        policy                             | forced
+        DurabilityPolicy.none()            | false
+        DurabilityPolicy.everyMessages(100) | true
+        DurabilityPolicy.everyMillis(5)    | true
+        DurabilityPolicy.sync()            | true
+    }
+
+    def "test force every messages"() {
+        given:
+        def queue = open("Every-Messages-Test-", 1000, StorageMode.STREAM, 0, true)
+        def provider = new MessageProvider(queue, DurabilityPolicy.everyMessages(10))
+        def forces = []
+
+        when:
+        // 由调用线程写入，每次只写一条消息
+        for (int i = 0; i < 100; i++) {
+            provider.putMessage("m" + i)
+            provider.writePending()
+            forces.add(queue.getForceCount())
+        }
+
+        then:
+        forces[8] == 0
+        forces[9] == 1
+        forces[18] == 1
+        forces[19] == 2
+        queue.getForceCount() == 10
+    }
+
+    def "test force every millis without new messages"() {
+        given:
+        def queue = open("Every-Millis-Test-", 1000, StorageMode.STREAM, 0, true)
+        def provider = new MessageProvider(queue, DurabilityPolicy.everyMillis(300))
+        def writer = Thread.start { provider.run() }
+        def deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        provider.putMessage("m0")
+        queue.takeMessage()
+        while (queue.getForceCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+
+        when:
+        // 刚刚force过，这条消息写入时不会force
+        provider.putMessage("m1")
+        def message = queue.takeMessage()
+        def forcesAfterWrite = queue.getForceCount()
+        // 之后没有新的消息，由写线程等待到时间之后force
+        while (queue.getForceCount() == 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        def forcesOnTimer = queue.getForceCount()
+        // 已经落盘之后不会再force
+        Thread.sleep(600)
+        def forcesWhenIdle = queue.getForceCount()
+        // 写线程在等待新的请求，中断不会打断文件的读写
+        writer.interrupt()
+        writer.join(5000)
+
+        then:
+        message == "m1"
+        forcesAfterWrite == 1
+        forcesOnTimer == 2
+        forcesWhenIdle == 2
+    }
+
+    def "test sync group commit"() {
+        given:
+        def queue = open("Sync-Test-", 1000, StorageMode.STREAM, 0, true)
+        def provider = new MessageProvider(queue, DurabilityPolicy.sync())
+        def producers = 8
+
+        when:
+        def threads = (0..<producers).collect { id ->
+            Thread.start { provider.putMessage("m" + id) }
+        }
+        // 等所有的put都入队并等待落盘，再由一次写入处理
+        def deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (provider.@messageQueue.size() < producers && System.nanoTime() < deadline) {
+            Thread.yield()
+        }
+        def waiting = threads.count { it.isAlive() }
+        provider.writePending()
+        threads.each { it.join(5000) }
+
+        then:
+        waiting == producers
+        threads.every { !it.isAlive() }
+        // 同时等待的put合并为一次force
+        queue.getForceCount() == 1
+        (0..<producers).collect { queue.takeMessage() }.toSet() == (0..<producers).collect { "m" + it }.toSet()
+    }
+
+    def "test record payload"() {
+        given:
+        def queue = open("Record-Test-", 10, mode, 64)
+        def longMessage = "消息" * 300
+
+        when:
+        queue.putMessage(longMessage)
+        queue.putMessage(new byte[70000])
+        queue.putMessage(ByteBuffer.wrap([1, 2, 3] as byte[]), 5)
+        def message = queue.takeMessage()
+        def bytes = queue.takeBytes()
+        def record = queue.takeRecord()
+
+        then:
+        message == longMessage
+        bytes.length == 70000
+        record.flags == 5
+        record.payload == [1, 2, 3] as byte[]
+
+        where:
+        mode << [StorageMode.STREAM, StorageMode.MAPPED]
+    }
+
+    def "test torn record"() {
+        given:
+        def queue = open("Torn-Test-", 10)
+        for (int i = 0; i < 15; i++) {
+            queue.putMessage("m" + i)
+        }
+        // 破坏第一个段文件中m7的内容
+        def file = new RandomAccessFile(file("Torn-Test-0"), "rw")
+        file.seek(file.length() - 20)
+        file.write(0x55)
+        file.close()
+
+        when:
+        def messages = (0..<8).collect { queue.takeMessage() }
+
+        then:
+        messages == ["m0", "m1", "m2", "m3", "m4", "m5", "m6", "m10"]
+    }
+
+    def "test recover"() {
+        given:
+        def prefix = "Recover-Test-" + mode + "-"
+        def queue = open(prefix, 10, mode, 64, false, 5)
+        for (int i = 0; i < 25; i++) {
+            queue.putMessage("m" + i)
+        }
+        for (int i = 0; i < 12; i++) {
+            queue.takeMessage()
+        }
+        queue.checkpoint()
+        if (mode == StorageMode.STREAM) {
+            // 最后一个段文件末尾写了半条记录
+            def out = new FileOutputStream(file(prefix + "2"), true)
+            out.write([0x81, 3, 1] as byte[])
+            out.close()
+        }
+
+        when:
+        def recovered = open(prefix, 10, mode, 64, false, 5)
+        recovered.putMessage("m25")
+        def messages = (12..25).collect { recovered.takeMessage() }
+
+        then:
+        messages == (12..25).collect { "m" + it }
+        !file(prefix + "0").exists()
+
+        where:
+        mode << [StorageMode.STREAM, StorageMode.MAPPED]
+    }
+
+    def "test recover at segment boundary"() {
+        given:
+        def prefix = "Boundary-Test-" + mode + "-"
+        def queue = open(prefix, 10, mode, 64, false, 5)
+        for (int i = 0; i < 20; i++) {
+            queue.putMessage("m" + i)
+        }
+        // 正好读完第一个段文件时保存检查点
+        for (int i = 0; i < 10; i++) {
+            queue.takeMessage()
+        }
+        queue.checkpoint()
+
+        when:
+        def recovered = open(prefix, 10, mode, 64, false, 5)
+        def messages = (10..<20).collect { recovered.takeMessage() }
+
+        then:
+        messages == (10..<20).collect { "m" + it }
+
+        where:
+        mode << [StorageMode.STREAM, StorageMode.MAPPED]
+    }
+
+    def "test consumer group"() {
+        given:
+        def queue = open("Group-Test-", 10, StorageMode.STREAM, 0, false, 5)
+        def index = queue.consumerGroup("index")
+        def archive = queue.consumerGroup("archive")
+        for (int i = 0; i < 35; i++) {
+            queue.putMessage("m" + i)
+        }
+
+        when:
+        def indexed = (0..<35).collect { index.takeMessage() }
+        def archived = (0..<12).collect { archive.takeMessage() }
+        archive.checkpoint()
+        def recovered = open("Group-Test-", 10, StorageMode.STREAM, 0, false, 5)
+
+        then:
+        indexed == (0..<35).collect { "m" + it }
+        archived == (0..<12).collect { "m" + it }
+        // archive还在读第二个段文件
+        !file("Group-Test-0").exists()
+        file("Group-Test-1").exists()
+        recovered.consumerGroup("archive").takeMessage() == "m12"
+        recovered.consumerGroup("alert").takeMessage() == "m10"
+    }
+
+    def "test idle consumer group"() {
+        given:
+        def queue = open("Idle-Test-", 10, StorageMode.STREAM, 0, false, 5)
+        def group = queue.consumerGroup("idle")
+        def taken = [].asSynchronized()
+        def readers = (0..<2).collect {
+            Thread.start {
+                taken << group.takeMessage()
+            }
+        }
+        // 等读线程进入等待
+        Thread.sleep(100)
+
+        when:
+        // 等待新消息的线程不持有锁，不会挡住检查点和移动
+        group.checkpoint()
+        group.seek(0)
+        queue.putMessage("m0")
+        queue.putMessage("m1")
+        readers.each { it.join(5000) }
+
+        then:
+        readers.every { !it.isAlive() }
+        taken.sort() == ["m0", "m1"]
+    }
+
+    def "test seek and replay"() {
+        given:
+        def queue = open("Seek-Test-" + mode + "-", 1000, mode, 1 << 20, false, 1024)
+        queue.setRetainSegments(10)
+        def message = { int i -> "m" + i + "-" + "x" * (i % 500) }
+        for (int i = 0; i < 5500; i++) {
+            queue.putMessage(message(i))
+        }
+        def group = queue.consumerGroup("seek")
+        for (int i = 0; i < 5500; i++) {
+            group.takeMessage()
+        }
+        def random = new Random(1)
+        def wrong = 0
+
+        when:
+        for (int k = 0; k < 1000; k++) {
+            def offset = random.nextInt(5500)
+            group.seek(offset)
+            def record = group.takeRecord()
+            if (record.offset != offset || record.message != message(offset)) {
+                wrong++
+            }
+        }
+        def replay = queue.replayFrom(1234)
+        def replayed = (1234..<1300).collect { replay.takeMessage() }
+        replay.close()
+
+        then:
+        wrong == 0
+        replayed == (1234..<1300).collect { message(it) }
+
+        when:
+        group.seek(99999)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        mode << [StorageMode.STREAM, StorageMode.MAPPED]
+    }
+
+    def "test seek default group"() {
+        given:
+        def queue = open("Seek-Default-Test-", 10, StorageMode.STREAM, 0, false, 5)
+        def consumer = new MessageConsumer(queue)
+        for (int i = 0; i < 5; i++) {
+            queue.putMessage("m" + i)
+        }
+        def taken = (0..<5).collect { consumer.takeMessage() }
+        def again = null
+        def reader = Thread.start { again = consumer.takeMessage() }
+        // 等读线程进入等待
+        Thread.sleep(100)
+
+        when:
+        queue.consumerGroup(CircleFileQueue.DEFAULT_GROUP).seek(2)
+        reader.join(5000)
+
+        then:
+        taken == (0..<5).collect { "m" + it }
+        !reader.isAlive()
+        again == "m2"
+        consumer.takeMessage() == "m3"
+    }
+
+    def "test batch"() {
+        given:
+        def queue = open("Batch-Test-", 1000)
+        def provider = new MessageProvider(queue)
+        def consumer = new MessageConsumer(queue)
+        def writer = Thread.start { provider.run() }
+        def size = 100000
+
+        when:
+        def producer = Thread.start {
+            for (int i = 0; i < size; i += 500) {
+                provider.putAll((i..<i + 500).collect { "m" + it })
+            }
+        }
+        def received = []
+        while (received.size() < size) {
+            consumer.drainTo(received, 1000)
+        }
+        producer.join()
+        writer.interrupt()
+
+        then:
+        received == (0..<size).collect { "m" + it }
+    }
 }
@@ -0,0 +1,111 @@
+package com.cc.wheel.queue.broker
+
+import com.cc.wheel.queue.DurabilityPolicy
+import com.cc.wheel.queue.file.StorageMode
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * @author cc
+ * @date 2026/10/17
+ */
+class FileQueueBrokerTest extends Specification {
+
+    def root = Files.createTempDirectory("file-queue-broker").toFile()
+
+    def cleanup() {
+        root.deleteDir()
+    }
+
+    def "test many topics"() {
+        given:
+        def broker = new FileQueueBroker(root.path, 2, 100, StorageMode.STREAM, 0, DurabilityPolicy.everyMillis(5))
+        def topics = 200
+        def size = 300
+
+        when:
+        def producer = Thread.start {
+            for (int i = 0; i < size; i++) {
+                for (int t = 0; t < topics; t++) {
+                    broker.topic("topic-" + t).put("m" + i)
+                }
+            }
+        }
+        def wrong = 0
+        for (int t = 0; t < topics; t++) {
+            for (int i = 0; i < size; i++) {
+                if (broker.topic("topic-" + t).take() != "m" + i) {
+                    wrong++
+                }
+            }
+        }
+        producer.join()
+        broker.close()
+
+        then:
+        wrong == 0
+        broker.topicCount() == topics
+    }
+
+    def "test reopen"() {
+        given:
+        def broker = new FileQueueBroker(root.path, 1, 100, StorageMode.MAPPED, 4096, DurabilityPolicy.sync())
+        for (int i = 0; i < 10; i++) {
+            broker.topic("orders").put("m" + i)
+        }
+        broker.close()
+
+        when:
+        broker.topic("orders").put("m10")
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        def reopened = new FileQueueBroker(root.path, 1, 100, StorageMode.MAPPED, 4096, DurabilityPolicy.sync())
+        reopened.topic("orders").put("m10")
+        def messages = (0..10).collect { reopened.topic("orders").take() }
+        reopened.close()
+
+        then:
+        messages == (0..10).collect { "m" + it }
+    }
+
+    def "test close while putting"() {
+        given:
+        def broker = new FileQueueBroker(root.path, 1, 1000, StorageMode.STREAM, 0, DurabilityPolicy.sync())
+        def written = new AtomicLong()
+        def producers = (0..<4).collect {
+            Thread.start {
+                try {
+                    while (true) {
+                        broker.topic("orders").put("m")
+                        written.incrementAndGet()
+                    }
+                } catch (IllegalStateException ignored) {
+                    // 关闭之后的写入被拒绝
+                }
+            }
+        }
+        Thread.sleep(100)
+
+        when:
+        broker.close()
+        producers.each { it.join(5000) }
+        def reopened = new FileQueueBroker(root.path, 1, 1000, StorageMode.STREAM, 0, DurabilityPolicy.none())
+        def topic = reopened.topic("orders")
+        def read = 0
+        while (read < written.get()) {
+            topic.take()
+            read++
+        }
+        reopened.close()
+
+        then:
+        // 关闭时正在写入的put要么写入要么被拒绝，不会一直等待
+        producers.every { !it.isAlive() }
+        read == written.get()
+    }
+}